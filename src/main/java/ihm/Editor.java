@@ -6,19 +6,32 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.IntStream;
 
 import com.google.common.annotations.VisibleForTesting;
 import javax.swing.*;
+import javax.swing.Timer;
 
+import logic.AStarSolver;
+import logic.LevelTemplate;
+import logic.SearchLimits;
+import logic.SolverResult;
 import logic.TileType;
 import logic.Controller;
 import logic.LevelFile;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 @NullMarked
 public class Editor extends JFrame implements MouseListener, MouseMotionListener {
+    private static final Logger LOGGER = Logger.getLogger(Editor.class.getName());
 
     private final LevelFile levelFile;
     private final int rowCount;
@@ -30,6 +43,8 @@ public class Editor extends JFrame implements MouseListener, MouseMotionListener
 
     private TileType content = TileType.OUTSIDE;
     private final Map<TileType, Integer> tileCounts = new EnumMap<>(TileType.class);
+    private @Nullable SolvabilityCheck solvabilityCheck;
+    private boolean unproven; // the last check of the current level ran out of time
 
     @VisibleForTesting
     enum Component {
@@ -59,6 +74,9 @@ public class Editor extends JFrame implements MouseListener, MouseMotionListener
     @VisibleForTesting
     static final int X_OFFSET = 10;  // Horizontal offset from window edge to grid start
 
+    @VisibleForTesting
+    static final Duration CHECK_TIME_LIMIT = Duration.ofSeconds(30);
+
     @VisibleForTesting
     TileType getContent() {
         return content;
@@ -235,12 +253,19 @@ public class Editor extends JFrame implements MouseListener, MouseMotionListener
         save.setBounds(windowWidth + 20, 170, 110, 30);
 
         save.addActionListener(_ -> {
-            if (isValidLevel()) {
-                saveLevelToFile();
+            SolvabilityCheck check = solvabilityCheck;
+            if (check != null && !check.isDone()) {
+                check.cancel(true);
+            } else if (!isValidLevel()) {
+                errorLabel.setText("Invalid level!");
+            } else if (unproven) {
+                // Saving again after a check ran out of time keeps the level as it is
+                saveLevelToFile(levelLines());
                 dispose();
                 new HomeWindow();
             } else {
-                errorLabel.setText("Invalid level!");
+                solvabilityCheck = new SolvabilityCheck(levelLines(), save, errorLabel);
+                solvabilityCheck.start();
             }
         });
         this.add(save);
@@ -265,12 +290,102 @@ public class Editor extends JFrame implements MouseListener, MouseMotionListener
         this.add(button);
     }
 
+    private boolean isChecking() {
+        return solvabilityCheck != null && !solvabilityCheck.isDone();
+    }
+
+    @VisibleForTesting
+    @Nullable SolvabilityCheck getSolvabilityCheck() {
+        return solvabilityCheck;
+    }
+
+    /**
+     * Looks for a solution of the level on a background thread, and saves the level only if there is one.
+     * The Save button cancels the check while it runs, and the error label shows how long it has been running.
+     */
+    @VisibleForTesting
+    final class SolvabilityCheck extends SwingWorker<SolverResult.Status, Void> {
+        private final List<String> lines;
+        private final JButton save;
+        private final JLabel errorLabel;
+        private final Timer progress;
+        private final long startTime = System.nanoTime();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        private SolvabilityCheck(List<String> lines, JButton save, JLabel errorLabel) {
+            this.lines = lines;
+            this.save = save;
+            this.errorLabel = errorLabel;
+            this.progress = new Timer(250, _ -> errorLabel.setText("Checking... %ds".formatted(
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime))));
+        }
+
+        private void start() {
+            errorLabel.setText("Checking...");
+            save.setText("Cancel");
+            progress.start();
+            execute();
+        }
+
+        @Override
+        protected SolverResult.Status doInBackground() {
+            Controller level = new Controller(LevelTemplate.parse(lines));
+            SearchLimits limits = new SearchLimits(CHECK_TIME_LIMIT, SearchLimits.DEFAULT.maxStates());
+            return new AStarSolver().solve(level.getWarehouse(), limits).status();
+        }
+
+        @Override
+        protected void done() {
+            progress.stop();
+            save.setText("Save");
+            try {
+                if (isCancelled()) {
+                    errorLabel.setText("Check cancelled");
+                    return;
+                }
+                switch (get()) {
+                    case SOLVED -> {
+                        // Saves the level as checked, whatever was edited meanwhile
+                        saveLevelToFile(lines);
+                        dispose();
+                        new HomeWindow();
+                    }
+                    case UNSOLVABLE -> errorLabel.setText("Unsolvable level!");
+                    case TIME_LIMIT_REACHED, STATE_LIMIT_REACHED -> {
+                        unproven = true;
+                        errorLabel.setText("Unproven, Save again");
+                    }
+                }
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.SEVERE, "Solvability check failed", e.getCause());
+                errorLabel.setText("Check failed");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // not expected, as the check is over
+                errorLabel.setText("Check failed");
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        /**
+         * Waits until the outcome of the check has been shown.
+         */
+        @VisibleForTesting
+        void await(Duration timeout) throws InterruptedException {
+            finished.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
     @Override
     public void mousePressed(MouseEvent e) {
+        if (isChecking()) {
+            return; // the level being checked must not change
+        }
         if (e.getX() < windowWidth + 31 && e.getY() < windowHeight + 31) {
             int l = Math.max((e.getX() - X_OFFSET) / TILE_SIZE, 0);
             int c = Math.max((e.getY() - TILE_SIZE) / TILE_SIZE, 0);
             controller.getWarehouse().getCell(c, l).setTileType(content);
+            unproven = false;
             repaint();
         }
     }
@@ -299,7 +414,7 @@ public class Editor extends JFrame implements MouseListener, MouseMotionListener
      * @return true if the level is valid, false otherwise
      */
     private boolean isValidLevel() {
-
+        tileCounts.clear();
         IntStream.range(0, rowCount * columnCount).forEach(i -> {
             int c = i / columnCount;
             int l = i % columnCount;
@@ -311,22 +426,32 @@ public class Editor extends JFrame implements MouseListener, MouseMotionListener
     }
 
     /**
-     * Saves the current level state to a file.
+     * Returns the current level state, line by line in the format of the level files.
      */
-    private void saveLevelToFile() {
-        StringBuilder levelContent = new StringBuilder();
+    private List<String> levelLines() {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
 
         IntStream.range(0, rowCount * columnCount).forEach(i -> {
             int c = i / columnCount;
             int l = i % columnCount;
             TileType tileType = controller.getWarehouse().getCell(c, l).getTileType();
-            levelContent.append(tileType.getCode());
+            line.append(tileType.getCode());
 
             if ((i + 1) % columnCount == 0) { // the row is complete
-                levelContent.append(System.lineSeparator());
+                lines.add(line.toString());
+                line.setLength(0);
             }
         });
+        return lines;
+    }
 
+    /**
+     * Saves a level state to the level file.
+     */
+    private void saveLevelToFile(List<String> lines) {
+        StringBuilder levelContent = new StringBuilder();
+        lines.forEach(line -> levelContent.append(line).append(System.lineSeparator()));
         levelFile.write(levelContent.toString());
     }
 
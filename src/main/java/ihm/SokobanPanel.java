@@ -1,6 +1,9 @@
 package ihm;
 
+import java.awt.BasicStroke;
+import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Image;
 import java.io.File;
 import java.io.IOException;
@@ -11,7 +14,9 @@ import javax.swing.JPanel;
 
 import logic.TileType;
 import logic.Controller;
+import logic.Push;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import static ihm.SokobanWindow.IMAGE_SIZE;
 
@@ -40,12 +45,25 @@ public class SokobanPanel extends JPanel {
         return ImageIO.read(new File(path));
     }
 
+    private static final Color HINT_COLOR = new Color(255, 200, 0);
+
     private final Controller controller;
+    private @Nullable Push hint;
 
     public SokobanPanel(Controller controller) {
         this.controller = controller;
     }
 
+    /**
+     * Highlights the box to push next and the direction to push it in, until another hint replaces it.
+     *
+     * @param hint the push to show, or null to remove the highlight
+     */
+    public void showHint(@Nullable Push hint) {
+        this.hint = hint;
+        repaint();
+    }
+
     @Override
     public void paint( Graphics g ) {
     	super.paint( g );
@@ -57,6 +75,22 @@ public class SokobanPanel extends JPanel {
                 g.drawImage( images.get(controller.getWarehouse().getCell(l, c).getTileType()), c * IMAGE_SIZE, l * IMAGE_SIZE, IMAGE_SIZE, IMAGE_SIZE, null);
             }
         }
+        if (hint != null) {
+            paintHint((Graphics2D) g, hint);
+        }
+    }
+
+    private static void paintHint(Graphics2D g, Push push) {
+        int x = push.column() * IMAGE_SIZE;
+        int y = push.line() * IMAGE_SIZE;
+        int centreX = x + IMAGE_SIZE / 2;
+        int centreY = y + IMAGE_SIZE / 2;
+        g.setColor(HINT_COLOR);
+        g.setStroke(new BasicStroke(3));
+        g.drawRect(x + 1, y + 1, IMAGE_SIZE - 3, IMAGE_SIZE - 3);
+        g.drawLine(centreX, centreY,
+            centreX + push.direction().getColumnDelta() * IMAGE_SIZE,
+            centreY + push.direction().getLineDelta() * IMAGE_SIZE);
     }
 
 }
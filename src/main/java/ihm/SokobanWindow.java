@@ -4,15 +4,19 @@ import java.awt.*;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.util.ArrayList;
-import java.util.List;
 import javax.swing.*;
 
 import com.google.common.annotations.VisibleForTesting;
 import logic.Controller;
 import logic.Direction;
 import logic.GameAction;
+import logic.HintService;
+import logic.Push;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @NullMarked
 public class SokobanWindow extends JFrame implements KeyListener{
@@ -25,8 +29,11 @@ public class SokobanWindow extends JFrame implements KeyListener{
         return controller;
     }
 
+    private static final HintService hintService = new HintService();
+
     private final Controller controller;
-    private final List<Direction> previousActions = new ArrayList<>();
+    private final SokobanPanel panel;
+    private @Nullable String notice;
 
     public SokobanWindow(Controller controller) {
         this.controller = controller;
@@ -36,15 +43,11 @@ public class SokobanWindow extends JFrame implements KeyListener{
 
         this.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
         this.setPreferredSize( new Dimension( IMAGE_WIDTH + 16, IMAGE_HEIGHT + 39 ));
-        if (controller.isOnCustomLevel()) {
-            this.setTitle( "Custom level");
-        }
-        else {
-            this.setTitle( "Level %s".formatted(controller.getLevel()));
-        }
+        updateTitle();
         this.setResizable(false);
 
-        this.add( new SokobanPanel(controller));
+        this.panel = new SokobanPanel(controller);
+        this.add( panel );
         this.addKeyListener( this );
         this.pack();
         this.setLocationRelativeTo( null );
@@ -66,26 +69,24 @@ public class SokobanWindow extends JFrame implements KeyListener{
             case KeyEvent.VK_BACK_SPACE -> GameAction.RESTART;
             case KeyEvent.VK_SPACE      -> GameAction.STEP_BACK;
             case KeyEvent.VK_ESCAPE     -> GameAction.STOP;
+            case KeyEvent.VK_H          -> GameAction.HINT;
             default -> null;
         };
         if( input == null ) {
             return;
         }
+        panel.showHint(null);
+        notice = null;
+        if (input == GameAction.HINT) {
+            requestHint();
+        }
         else if (input instanceof Direction direction) {
-            previousActions.add(direction);
             controller.action(direction);
         }
-        else if (input == GameAction.STEP_BACK && !previousActions.isEmpty()) {
-            controller.restart();
-
-            // replay all but the last move
-            previousActions.removeLast();
-            for (var direction : previousActions) {
-                controller.action(direction);
-            }
+        else if (input == GameAction.STEP_BACK) {
+            controller.undo();
         }
         else if (input == GameAction.RESTART) {
-            previousActions.clear();
             controller.restart();
         }
         else if (input == GameAction.STOP) {
@@ -93,11 +94,47 @@ public class SokobanWindow extends JFrame implements KeyListener{
         }
 
         repaint();
+        updateTitle();
         if (controller.levelEnd()) {
             handleEndOfLevel();
         }
     }
 
+    /**
+     * Looks for the next push in the background, and shows it only if the player has not moved meanwhile.
+     * A search that fails or is cancelled shows no hint, which also takes down the "thinking..." notice.
+     */
+    private void requestHint() {
+        long position = controller.getNormalizedHash();
+        notice = "thinking...";
+        CompletableFuture<Optional<Push>> hint = hintService.nextPush(controller);
+        var unused = hint.whenComplete((push, error) -> SwingUtilities.invokeLater(() -> {
+            if (isDisplayable() && controller.getNormalizedHash() == position) {
+                showHint(error == null ? push : Optional.empty());
+            }
+        }));
+    }
+
+    private void showHint(Optional<Push> push) {
+        panel.showHint(push.orElse(null));
+        notice = push.isPresent() ? null : "no hint found";
+        updateTitle();
+    }
+
+    /**
+     * Names the level, and tells the player as soon as a push made it unsolvable.
+     */
+    private void updateTitle() {
+        String title = controller.isOnCustomLevel() ? "Custom level" : "Level %s".formatted(controller.getLevel());
+        if (controller.isDeadlocked()) {
+            title += " - deadlocked! Space to undo, Backspace to restart";
+        }
+        else if (notice != null) {
+            title += " - " + notice;
+        }
+        this.setTitle(title);
+    }
+
      private void handleEndOfLevel() {
         if (controller.isOnCustomLevel() || controller.getLevel() == 10) {
 
@@ -0,0 +1,102 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A* search of the push graph, which finds a solution with the fewest pushes while expanding far fewer
+ * states than {@link BreadthFirstSolver}.
+ * <p>
+ * States are ranked by pushes made plus an {@link AssignmentBound} on the pushes left: the cheapest
+ * matching of boxes to storage areas over their push distances. States where a box can no longer reach
+ * any storage area are pruned. Every generated state is kept in a visited set, which is what
+ * {@link SearchLimits#maxStates()} bounds.
+ */
+@NullMarked
+public final class AStarSolver implements Solver {
+
+    private record Node(@Nullable State parent, int push, int pushes) {}
+
+    private record Entry(State state, int pushes, int estimate) {}
+
+    // Lowest estimate first, and among equal estimates the deepest state, which is closest to a solution
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::estimate)
+        .thenComparing(Comparator.comparingInt(Entry::pushes).reversed());
+
+    @Override
+    public SolverResult solve(Warehouse warehouse, SearchLimits limits) {
+        long deadline = limits.deadline();
+        PushBoard board = PushBoard.of(warehouse);
+        Reachability reachability = new Reachability(board);
+        Reachability childReachability = new Reachability(board);
+        AssignmentBound bound = new AssignmentBound(PushDistances.of(board));
+
+        State start = board.start();
+        int startBound = bound.of(start.boxes());
+        if (startBound == AssignmentBound.DEADLOCK) {
+            return SolverResult.failed(SolverResult.Status.UNSOLVABLE, 1);
+        }
+
+        Map<State, Node> visited = new HashMap<>();
+        visited.put(start, new Node(null, -1, 0));
+        PriorityQueue<Entry> open = new PriorityQueue<>(ORDER);
+        open.add(new Entry(start, 0, startBound));
+
+        while (!open.isEmpty()) {
+            if (SearchLimits.isPast(deadline)) {
+                return SolverResult.failed(SolverResult.Status.TIME_LIMIT_REACHED, visited.size());
+            }
+            Entry entry = open.remove();
+            State state = entry.state();
+            Node node = visited.get(state);
+            if (node == null || node.pushes() < entry.pushes()) {
+                continue; // superseded by a shorter path to the same state
+            }
+            int[] boxes = state.boxes();
+            if (board.isSolved(boxes)) {
+                return SolverResult.solved(board, pushesTo(state, visited), visited.size());
+            }
+            reachability.fill(state.worker(), boxes);
+
+            int pushes = entry.pushes() + 1;
+            for (int i = 0; i < boxes.length; i++) {
+                for (int direction = 0; direction < 4; direction++) {
+                    if (!reachability.canPush(boxes[i], direction)) {
+                        continue;
+                    }
+                    State child = board.push(state, i, direction, childReachability);
+                    Node known = visited.get(child);
+                    if (known != null && known.pushes() <= pushes) {
+                        continue;
+                    }
+                    int childBound = bound.of(child.boxes());
+                    if (childBound == AssignmentBound.DEADLOCK) {
+                        continue;
+                    }
+                    visited.put(child, new Node(state, PushBoard.packPush(boxes[i], direction), pushes));
+                    if (visited.size() >= limits.maxStates()) {
+                        return SolverResult.failed(SolverResult.Status.STATE_LIMIT_REACHED, visited.size());
+                    }
+                    open.add(new Entry(child, pushes, pushes + childBound));
+                }
+            }
+        }
+        return SolverResult.failed(SolverResult.Status.UNSOLVABLE, visited.size());
+    }
+
+    private static int[] pushesTo(State state, Map<State, Node> visited) {
+        ArrayDeque<Integer> pushes = new ArrayDeque<>();
+        Node node = visited.get(state);
+        while (node != null && node.parent() != null) {
+            pushes.addFirst(node.push());
+            node = visited.get(node.parent());
+        }
+        return pushes.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
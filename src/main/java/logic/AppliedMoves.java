@@ -0,0 +1,11 @@
+package logic;
+
+/**
+ * The outcome of applying a sequence of moves with {@link Controller#applyMoves(CharSequence)}.
+ *
+ * @param moves  the number of moves applied, which stops short of the sequence length if a move was blocked
+ * @param pushes the number of applied moves that pushed a box
+ * @param solved true if the level is complete after the applied moves
+ */
+public record AppliedMoves(int moves, int pushes, boolean solved) {
+}
@@ -0,0 +1,112 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Arrays;
+
+/**
+ * Lower bound on the pushes left in a state: the cost of the cheapest assignment of boxes to distinct
+ * storage areas, each box costing its push distance to its storage area.
+ * <p>
+ * The assignment is solved with the Hungarian algorithm in O(boxes² × storage areas). The bound is
+ * admissible and consistent: a push moves a single box, and lowers that box's push distance to any
+ * storage area by at most one, so the bound drops by at most one per push, though it may rise by more.
+ * An instance holds scratch buffers and must not be shared between threads.
+ */
+@NullMarked
+final class AssignmentBound {
+    /**
+     * Returned for states where some box cannot reach any free storage area.
+     */
+    static final int DEADLOCK = Integer.MAX_VALUE;
+
+    private final PushDistances distances;
+    private final int goals;
+    private final int[] goalPotential;
+    private final int[] assignedBox;
+    private final int[] minimum;
+    private final int[] way;
+    private final boolean[] used;
+    private int[] boxPotential = new int[1];
+
+    AssignmentBound(PushDistances distances) {
+        this.distances = distances;
+        this.goals = distances.goals();
+        this.goalPotential = new int[goals + 1];
+        this.assignedBox = new int[goals + 1];
+        this.minimum = new int[goals + 1];
+        this.way = new int[goals + 1];
+        this.used = new boolean[goals + 1];
+    }
+
+    /**
+     * Computes the bound for the given box squares.
+     *
+     * @return the lower bound, or {@link #DEADLOCK}
+     */
+    int of(int[] boxes) {
+        int n = boxes.length;
+        if (n > goals) {
+            return DEADLOCK;
+        }
+        if (boxPotential.length < n + 1) {
+            boxPotential = new int[n + 1];
+        }
+        Arrays.fill(boxPotential, 0, n + 1, 0);
+        Arrays.fill(goalPotential, 0);
+        Arrays.fill(assignedBox, 0);
+
+        // Rows are boxes 1..n, columns are storage areas 1..goals, index 0 is the virtual start
+        for (int row = 1; row <= n; row++) {
+            assignedBox[0] = row;
+            int column = 0;
+            Arrays.fill(minimum, Integer.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[column] = true;
+                int box = assignedBox[column];
+                int delta = Integer.MAX_VALUE;
+                int next = 0;
+                for (int j = 1; j <= goals; j++) {
+                    if (!used[j]) {
+                        int reduced = distances.distance(j - 1, boxes[box - 1]) - boxPotential[box] - goalPotential[j];
+                        if (reduced < minimum[j]) {
+                            minimum[j] = reduced;
+                            way[j] = column;
+                        }
+                        if (minimum[j] < delta) {
+                            delta = minimum[j];
+                            next = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= goals; j++) {
+                    if (used[j]) {
+                        boxPotential[assignedBox[j]] += delta;
+                        goalPotential[j] -= delta;
+                    } else {
+                        minimum[j] -= delta;
+                    }
+                }
+                column = next;
+            } while (assignedBox[column] != 0);
+            do {
+                int previous = way[column];
+                assignedBox[column] = assignedBox[previous];
+                column = previous;
+            } while (column != 0);
+        }
+
+        int cost = 0;
+        for (int j = 1; j <= goals; j++) {
+            if (assignedBox[j] != 0) {
+                int distance = distances.distance(j - 1, boxes[assignedBox[j] - 1]);
+                if (distance >= PushDistances.UNREACHABLE) {
+                    return DEADLOCK;
+                }
+                cost += distance;
+            }
+        }
+        return cost;
+    }
+}
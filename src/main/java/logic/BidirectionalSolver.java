@@ -0,0 +1,167 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bidirectional breadth-first search, which finds a solution with the fewest pushes by searching forward
+ * with pushes from the start and backward with pulls from the solved states until the two searches meet.
+ * <p>
+ * The solved states have a box on every storage area, with the worker in any of the regions left free.
+ * The side with the smaller frontier is expanded a whole layer at a time, so levels whose storage areas
+ * are packed together, which leave few ways to pull the first boxes out, are mostly searched from the
+ * goal side. Levels with more storage areas than boxes have no single solved configuration and are
+ * left to {@link BreadthFirstSolver}.
+ */
+@NullMarked
+public final class BidirectionalSolver implements Solver {
+
+    private record Node(@Nullable State parent, int push, int depth) {}
+
+    @Override
+    public SolverResult solve(Warehouse warehouse, SearchLimits limits) {
+        PushBoard board = PushBoard.of(warehouse);
+        if (board.goalSquares().length != board.boxCount()) {
+            return new BreadthFirstSolver().solve(warehouse, limits);
+        }
+        return new Search(board, limits).run();
+    }
+
+    /**
+     * The state of one run.
+     */
+    private static final class Search {
+        private final PushBoard board;
+        private final SearchLimits limits;
+        private final long deadline;
+        private final Reachability reachability;
+        private final Reachability childReachability;
+        private final Map<State, Node> forward = new HashMap<>();
+        private final Map<State, Node> backward = new HashMap<>();
+        private @Nullable State meeting;
+        private int shortest = Integer.MAX_VALUE;
+
+        Search(PushBoard board, SearchLimits limits) {
+            this.board = board;
+            this.limits = limits;
+            this.deadline = limits.deadline();
+            this.reachability = new Reachability(board);
+            this.childReachability = new Reachability(board);
+        }
+
+        SolverResult run() {
+            State start = board.start();
+            if (board.isSolved(start.boxes())) {
+                return SolverResult.solved(board, new int[0], 1);
+            }
+            forward.put(start, new Node(null, -1, 0));
+            List<State> forwardLayer = List.of(start);
+            List<State> backwardLayer = board.goalStates(reachability);
+            for (State goal : backwardLayer) {
+                backward.put(goal, new Node(null, -1, 0));
+            }
+
+            int forwardDepth = 0;
+            int backwardDepth = 0;
+            while (!forwardLayer.isEmpty() && !backwardLayer.isEmpty()) {
+                SolverResult.Status stop;
+                if (forwardLayer.size() <= backwardLayer.size()) {
+                    List<State> next = new ArrayList<>();
+                    stop = expand(forwardLayer, next, true, ++forwardDepth);
+                    forwardLayer = next;
+                } else {
+                    List<State> next = new ArrayList<>();
+                    stop = expand(backwardLayer, next, false, ++backwardDepth);
+                    backwardLayer = next;
+                }
+                if (stop != null) {
+                    return SolverResult.failed(stop, explored());
+                }
+                State met = meeting;
+                if (met != null) {
+                    return SolverResult.solved(board, pushesThrough(met), explored());
+                }
+            }
+            return SolverResult.failed(SolverResult.Status.UNSOLVABLE, explored());
+        }
+
+        /**
+         * Expands a whole layer of one side, recording the shortest solution through any state
+         * that the other side reached.
+         *
+         * @param depth the depth of the states generated from the layer
+         * @return why the search must stop, or null to go on
+         */
+        private SolverResult.@Nullable Status expand(List<State> layer, List<State> next, boolean pushing, int depth) {
+            Map<State, Node> visited = pushing ? forward : backward;
+            Map<State, Node> other = pushing ? backward : forward;
+            for (State state : layer) {
+                if (SearchLimits.isPast(deadline)) {
+                    return SolverResult.Status.TIME_LIMIT_REACHED;
+                }
+                int[] boxes = state.boxes();
+                reachability.fill(state.worker(), boxes);
+                for (int i = 0; i < boxes.length; i++) {
+                    for (int direction = 0; direction < 4; direction++) {
+                        State child;
+                        int push;
+                        if (pushing) {
+                            if (!reachability.canPush(boxes[i], direction)) {
+                                continue;
+                            }
+                            child = board.push(state, i, direction, childReachability);
+                            push = PushBoard.packPush(boxes[i], direction);
+                        } else {
+                            if (!reachability.canPull(boxes[i], direction)) {
+                                continue;
+                            }
+                            child = board.pull(state, i, direction, childReachability);
+                            push = board.pushUndoneBy(boxes[i], direction);
+                        }
+                        if (visited.putIfAbsent(child, new Node(state, push, depth)) != null) {
+                            continue;
+                        }
+                        Node met = other.get(child);
+                        if (met != null && depth + met.depth() < shortest) {
+                            shortest = depth + met.depth();
+                            meeting = child;
+                        }
+                        if (explored() >= limits.maxStates()) {
+                            return SolverResult.Status.STATE_LIMIT_REACHED;
+                        }
+                        next.add(child);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private long explored() {
+            return (long) forward.size() + backward.size();
+        }
+
+        /**
+         * @return the pushes from the start to the meeting state, followed by those from it to a solved state
+         */
+        private int[] pushesThrough(State met) {
+            ArrayDeque<Integer> pushes = new ArrayDeque<>();
+            Node node = forward.get(met);
+            while (node != null && node.parent() != null) {
+                pushes.addFirst(node.push());
+                node = forward.get(node.parent());
+            }
+            node = backward.get(met);
+            while (node != null && node.parent() != null) {
+                pushes.addLast(node.push());
+                node = backward.get(node.parent());
+            }
+            return pushes.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A bitboard copy of a {@link Warehouse}, meant for replaying and analysing many moves quickly.
+ * <p>
+ * Walls, storage areas and boxes are each a bit set over the board surrounded by a one-square wall
+ * border, so a move never needs a bounds check. Outside tiles count as walls. Moves and pushes
+ * follow the same rules as {@link Controller#action(Direction)}.
+ */
+@NullMarked
+public final class BitBoard {
+    private final int width;
+    private final int[] offsets = new int[Direction.values().length];
+    private final long[] walls;
+    private final long[] goals;
+    private final long[] boxes;
+    private int worker;
+
+    private BitBoard(int width, int squares) {
+        this.width = width;
+        for (Direction direction : Direction.values()) {
+            offsets[direction.index()] = direction.getLineDelta() * width + direction.getColumnDelta();
+        }
+        int words = (squares + Long.SIZE - 1) / Long.SIZE;
+        this.walls = new long[words];
+        this.goals = new long[words];
+        this.boxes = new long[words];
+    }
+
+    /**
+     * Creates a bitboard holding the current state of the given warehouse.
+     */
+    public static BitBoard of(Warehouse warehouse) {
+        int lines = warehouse.getLines();
+        int columns = warehouse.getColumns();
+        BitBoard board = new BitBoard(columns + 2, (lines + 2) * (columns + 2));
+
+        for (int l = -1; l <= lines; l++) {
+            for (int c = -1; c <= columns; c++) {
+                int square = board.squareOf(l, c);
+                boolean border = l < 0 || l == lines || c < 0 || c == columns;
+                TileType type = border ? TileType.WALL : warehouse.getCell(l, c).getTileType();
+                switch (type) {
+                    case WALL, OUTSIDE -> set(board.walls, square);
+                    case UNSTORED_BOX -> set(board.boxes, square);
+                    case STORED_BOX -> {
+                        set(board.boxes, square);
+                        set(board.goals, square);
+                    }
+                    case STORAGE_AREA -> set(board.goals, square);
+                    case WORKER_ON_FLOOR -> board.worker = square;
+                    case WORKER_IN_STORAGE_AREA -> {
+                        set(board.goals, square);
+                        board.worker = square;
+                    }
+                    case FLOOR -> {
+                    }
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Moves the worker one step, pushing a box if there is one in the way.
+     *
+     * @return true if the worker moved, false if the move is blocked
+     */
+    public boolean move(Direction direction) {
+        int offset = offsets[direction.index()];
+        int target = worker + offset;
+        if (test(walls, target)) {
+            return false;
+        }
+        if (test(boxes, target)) {
+            int beyond = target + offset;
+            if (test(walls, beyond) || test(boxes, beyond)) {
+                return false;
+            }
+            clear(boxes, target);
+            set(boxes, beyond);
+        }
+        worker = target;
+        return true;
+    }
+
+    /**
+     * Checks whether every box is in a storage area.
+     *
+     * @return true if no box is left outside a storage area
+     */
+    public boolean isSolved() {
+        for (int i = 0; i < boxes.length; i++) {
+            if ((boxes[i] & ~goals[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean hasBox(int line, int column) {
+        return test(boxes, squareOf(line, column));
+    }
+
+    public int getWorkerLine() {
+        return worker / width - 1;
+    }
+
+    public int getWorkerColumn() {
+        return worker % width - 1;
+    }
+
+    private int squareOf(int line, int column) {
+        return (line + 1) * width + column + 1;
+    }
+
+    private static boolean test(long[] bits, int square) {
+        return (bits[square >>> 6] & (1L << square)) != 0;
+    }
+
+    private static void set(long[] bits, int square) {
+        bits[square >>> 6] |= 1L << square;
+    }
+
+    private static void clear(long[] bits, int square) {
+        bits[square >>> 6] &= ~(1L << square);
+    }
+}
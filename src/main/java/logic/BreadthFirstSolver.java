@@ -0,0 +1,79 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Breadth-first search of the push graph, which finds a solution with the fewest pushes.
+ * <p>
+ * A node is a box configuration together with the region the worker can walk to, so walking is never
+ * part of the search: only pushes are. Every generated state is kept in a visited set, which is what
+ * {@link SearchLimits#maxStates()} bounds.
+ */
+@NullMarked
+public final class BreadthFirstSolver implements Solver {
+
+    private record Node(@Nullable State parent, int push) {}
+
+    @Override
+    public SolverResult solve(Warehouse warehouse, SearchLimits limits) {
+        long deadline = limits.deadline();
+        PushBoard board = PushBoard.of(warehouse);
+        Reachability reachability = new Reachability(board);
+        Reachability childReachability = new Reachability(board);
+
+        State start = board.start();
+        if (board.isSolved(start.boxes())) {
+            return SolverResult.solved(board, new int[0], 1);
+        }
+
+        Map<State, Node> visited = new HashMap<>();
+        visited.put(start, new Node(null, -1));
+        Queue<State> queue = new ArrayDeque<>();
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            if (SearchLimits.isPast(deadline)) {
+                return SolverResult.failed(SolverResult.Status.TIME_LIMIT_REACHED, visited.size());
+            }
+            State state = queue.remove();
+            int[] boxes = state.boxes();
+            reachability.fill(state.worker(), boxes);
+
+            for (int i = 0; i < boxes.length; i++) {
+                for (int direction = 0; direction < 4; direction++) {
+                    if (!reachability.canPush(boxes[i], direction)) {
+                        continue;
+                    }
+                    State child = board.push(state, i, direction, childReachability);
+                    if (visited.putIfAbsent(child, new Node(state, PushBoard.packPush(boxes[i], direction))) != null) {
+                        continue;
+                    }
+                    if (board.isSolved(child.boxes())) {
+                        return SolverResult.solved(board, pushesTo(child, visited), visited.size());
+                    }
+                    if (visited.size() >= limits.maxStates()) {
+                        return SolverResult.failed(SolverResult.Status.STATE_LIMIT_REACHED, visited.size());
+                    }
+                    queue.add(child);
+                }
+            }
+        }
+        return SolverResult.failed(SolverResult.Status.UNSOLVABLE, visited.size());
+    }
+
+    private static int[] pushesTo(State state, Map<State, Node> visited) {
+        ArrayDeque<Integer> pushes = new ArrayDeque<>();
+        Node node = visited.get(state);
+        while (node != null && node.parent() != null) {
+            pushes.addFirst(node.push());
+            node = visited.get(node.parent());
+        }
+        return pushes.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -2,135 +2,39 @@ package logic;
 
 import org.jspecify.annotations.NullMarked;
 
+/**
+ * A view of one square of a {@link Warehouse}; the tile itself is stored by the warehouse.
+ */
 @NullMarked
 public class Cell {
     private final int line;
     private final int column;
-    private TileType tileType;
     private final Warehouse warehouse;
 
-    public Cell(int line, int column, TileType tileType, Warehouse warehouse) {
+    public Cell(int line, int column, Warehouse warehouse) {
     	this.line = line;
     	this.column = column;
-    	this.tileType = tileType;
     	this.warehouse = warehouse;
     }
 
     public TileType getTileType() {
-    	return this.tileType;
+    	return warehouse.getTileType(line, column);
     }
 
     public void setTileType(TileType tileType) {
-    	this.tileType = tileType;
+    	warehouse.setTileType(line, column, tileType);
     }
 
     public void setAdjacentCellType(Direction direction, TileType type) {
-        switch (direction) {
-            case UP    -> warehouse.getCell(line - 1, column).setTileType(type);
-            case DOWN  -> warehouse.getCell(line + 1, column).setTileType(type);
-            case LEFT  -> warehouse.getCell(line, column - 1).setTileType(type);
-            case RIGHT -> warehouse.getCell(line, column + 1).setTileType(type);
-        }
+        warehouse.setAdjacentTileType(line, column, direction, type);
     }
 
     public TileType getAdjacentCellType(Direction direction) {
-        return switch (direction) {
-            case UP    -> warehouse.getCell(line - 1, column).getTileType();
-            case DOWN  -> warehouse.getCell(line + 1, column).getTileType();
-            case LEFT  -> warehouse.getCell(line, column - 1).getTileType();
-            case RIGHT -> warehouse.getCell(line, column + 1).getTileType();
-        };
+        return warehouse.getAdjacentTileType(line, column, direction);
     }
 
     public boolean canAcceptWorker(Direction direction) {
-        switch (this.tileType) {
-            case WALL, OUTSIDE -> {
-                return false;
-            }
-            case UNSTORED_BOX -> {
-                if (boxCellCannotAcceptWorker(direction)) {
-                    return false;
-                }
-                switch (this.getAdjacentCellType(direction)) {
-                    case UNSTORED_BOX, STORED_BOX, WALL, OUTSIDE -> {
-                        return false;
-                    }
-                    case STORAGE_AREA -> {
-                        this.setTileType(TileType.WORKER_ON_FLOOR);
-                        this.setAdjacentCellType(direction, TileType.STORED_BOX);
-                    }
-                    case FLOOR -> {
-                        this.setTileType(TileType.WORKER_ON_FLOOR);
-                        this.setAdjacentCellType(direction, TileType.UNSTORED_BOX);
-                    }
-                    default -> {
-                    }
-                }
-            }
-            case STORED_BOX -> {
-                if (boxCellCannotAcceptWorker(direction)) {
-                    return false;
-                }
-                switch (this.getAdjacentCellType(direction)) {
-                    case UNSTORED_BOX, WALL, STORED_BOX -> {
-                        return false;
-                    }
-                    case STORAGE_AREA -> {
-                        this.setTileType(TileType.WORKER_IN_STORAGE_AREA);
-                        this.setAdjacentCellType(direction, TileType.STORED_BOX);
-                    }
-                    case FLOOR -> {
-                        this.setTileType(TileType.WORKER_IN_STORAGE_AREA);
-                        this.setAdjacentCellType(direction, TileType.UNSTORED_BOX);
-                    }
-                    default -> {
-                    }
-                }
-            }
-            case FLOOR -> this.setTileType(TileType.WORKER_ON_FLOOR);
-            case STORAGE_AREA -> this.setTileType(TileType.WORKER_IN_STORAGE_AREA);
-            default -> {
-            }
-        }
-    	Direction previous_player = direction.reverse();
-        return switch (this.getAdjacentCellType(previous_player)) {
-            case WORKER_ON_FLOOR -> {
-                this.setAdjacentCellType(previous_player, TileType.FLOOR);
-                yield true;
-            }
-            case WORKER_IN_STORAGE_AREA -> {
-                this.setAdjacentCellType(previous_player, TileType.STORAGE_AREA);
-                yield true;
-            }
-            default -> false;
-        };
-
-    }
-
-    private boolean boxCellCannotAcceptWorker(Direction direction) {
-        switch (direction) {
-            case UP -> {
-                if (this.line == 0) {
-                    return true;
-                }
-            }
-            case DOWN -> {
-                if (this.line == warehouse.getLines() - 1) {
-                    return true;
-                }
-            }
-            case LEFT -> {
-                if (this.column == 0) {
-                    return true;
-                }
-            }
-            case RIGHT -> {
-                if (this.column == warehouse.getColumns() - 1) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return warehouse.canAcceptWorker(line, column, direction);
     }
 
 }
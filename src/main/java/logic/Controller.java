@@ -1,9 +1,14 @@
 package logic;
 
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import java.nio.file.FileSystems;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,10 +17,21 @@ public class Controller {
 
 	private static final int customLevel = 99;
 
-	private int level = customLevel;
-    private final String pathToLevel;
+	private static final int BLOCKED = 0;
+	private static final int MOVED = 1;
+	private static final int PUSHED = 2;
+
+	private static final ExecutorService prefetchExecutor =
+		Executors.newSingleThreadExecutor(Thread.ofPlatform().name("level-prefetch").daemon().factory());
+
+	private final int level;
+    private final LevelTemplate template;
     private Warehouse warehouse;
     private Worker worker;
+    private final MoveHistory history = new MoveHistory();
+    // The number of moves in the history when the level became deadlocked, or -1 while it is not
+    private int deadlockedAt = -1;
+    private final @Nullable CompletableFuture<LevelTemplate> nextLevelTemplate;
 
     public Worker getWorker() {
         return worker;
@@ -26,67 +42,253 @@ public class Controller {
     }
 
     public Controller(String pathToLevel) {
-		var levelsPath = pathToLevels();
+    	this(levelOf(pathToLevel), LevelCache.shared().get(pathToLevel));
+    }
 
-		if (pathToLevel.contains(levelsPath)) {
-			Optional<Integer> levels = parseLevel(pathToLevel);
-			this.level = levels.orElse(customLevel);
-    	}
+    /**
+     * Creates a controller for an already parsed level, which is played as a custom level.
+     */
+    public Controller(LevelTemplate template) {
+    	this(customLevel, template);
+    }
 
-    	this.pathToLevel = pathToLevel;
+    private Controller(int level, LevelTemplate template) {
+    	this.level = level;
+    	this.template = template;
     	this.worker = new Worker();
 
-    	this.warehouse = new Warehouse(pathToLevel, this.worker);
+    	this.warehouse = new Warehouse(this.template, this.worker);
+
+    	// Parse the next level while this one is played, so that moving on to it does not stall the UI.
+    	// Only the path is captured, as overridable methods must not be called on a half-built controller.
+    	String pathToNextLevel = levelPath(level + 1);
+    	this.nextLevelTemplate = level == customLevel
+    		? null
+    		: CompletableFuture.supplyAsync(() -> LevelCache.shared().get(pathToNextLevel), prefetchExecutor);
     }
 
+	private static int levelOf(String pathToLevel) {
+		var levelsPath = pathToLevels();
+
+		if (pathToLevel.contains(levelsPath)) {
+			Optional<Integer> levels = parseLevel(pathToLevel);
+			return levels.orElse(customLevel);
+		}
+		return customLevel;
+	}
+
 	private static String pathToLevels() {
         return "levels%slevel".formatted(FileSystems.getDefault().getSeparator());
 	}
 
+	/**
+	 * Returns a controller for the level after this one, which has been loaded in the background.
+	 */
 	public Controller nextLevel() {
-		int nextLevel = this.level + 1;
-		return new Controller("%s%s.txt".formatted(pathToLevels(), nextLevel));
+		String pathToNextLevel = nextLevelPath();
+		if (nextLevelTemplate != null) {
+			try {
+				return new Controller(this.level + 1, nextLevelTemplate.join());
+			} catch (CompletionException e) {
+				// Fall through and load it again, reporting the original failure
+			}
+		}
+		return new Controller(pathToNextLevel);
+	}
+
+	private String nextLevelPath() {
+		return levelPath(this.level + 1);
+	}
+
+	private static String levelPath(int level) {
+		return "%s%s.txt".formatted(pathToLevels(), level);
 	}
 
     public void action(Direction direction) {
-    	int l = worker.getLine();
-    	int c = worker.getColumn();
-        switch (direction) {
-            case UP -> {
-                if (l != 0) {
-                    if (warehouse.getCell((l - 1), c).canAcceptWorker(direction)) {
-                        worker.moveUp();
-                    }
-                }
+        step(direction);
+    }
+
+    /**
+     * Applies a sequence of moves in LURD notation, where l, u, r and d move the worker left, up, right
+     * and down. Upper case letters, which mark pushes, are applied the same way; whitespace is skipped.
+     * The sequence stops at the first blocked move.
+     *
+     * @throws IllegalArgumentException if the sequence contains any other character, in which case
+     *                                  no move is applied
+     */
+    public AppliedMoves applyMoves(CharSequence lurd) {
+        // Check the whole sequence first, so that an invalid one leaves the game untouched
+        for (int i = 0; i < lurd.length(); i++) {
+            checkMove(lurd.charAt(i));
+        }
+
+        int moves = 0;
+        int pushes = 0;
+        for (int i = 0; i < lurd.length(); i++) {
+            char move = lurd.charAt(i);
+            if (Character.isWhitespace(move)) {
+                continue;
+            }
+            int result = step(directionOf(move));
+            if (result == BLOCKED) {
+                break;
+            }
+            moves++;
+            if (result == PUSHED) {
+                pushes++;
+            }
+        }
+        return new AppliedMoves(moves, pushes, levelEnd());
+    }
+
+    /**
+     * Applies a sequence of moves in LURD notation given as ASCII bytes.
+     *
+     * @see #applyMoves(CharSequence)
+     */
+    public AppliedMoves applyMoves(byte[] lurd) {
+        for (byte move : lurd) {
+            checkMove((char) move);
+        }
+
+        int moves = 0;
+        int pushes = 0;
+        for (byte b : lurd) {
+            char move = (char) b;
+            if (Character.isWhitespace(move)) {
+                continue;
             }
-            case DOWN -> {
-                if (l != warehouse.getLines() - 1) {
-                    if (warehouse.getCell((l + 1), c).canAcceptWorker(direction)) {
-                        worker.moveDown();
-                    }
-                }
+            int result = step(directionOf(move));
+            if (result == BLOCKED) {
+                break;
             }
-            case LEFT -> {
-                if (c != 0) {
-                    if (warehouse.getCell(l, c - 1).canAcceptWorker(direction)) {
-                        worker.moveLeft();
-                    }
-                }
+            moves++;
+            if (result == PUSHED) {
+                pushes++;
             }
-            case RIGHT -> {
-                if (c != warehouse.getColumns() - 1) {
-                    if (warehouse.getCell(l, c + 1).canAcceptWorker(direction)) {
-                        worker.moveRight();
-                    }
-                }
+        }
+        return new AppliedMoves(moves, pushes, levelEnd());
+    }
+
+    /**
+     * @return {@link #BLOCKED}, {@link #MOVED} or {@link #PUSHED}
+     */
+    private int step(Direction direction) {
+        boolean push = warehouse.isBoxAdjacent(worker.getLine(), worker.getColumn(), direction);
+        if (!warehouse.moveWorker(worker.getLine(), worker.getColumn(), direction)) {
+            return BLOCKED;
+        }
+        worker.move(direction);
+        history.record(direction, push);
+        if (push) {
+            checkDeadlock(direction);
+        }
+        return push ? PUSHED : MOVED;
+    }
+
+    /**
+     * Checks the box just pushed in the given direction, which is in front of the worker.
+     * A deadlock lasts until the push that caused it is undone, as no other move can get out of it.
+     */
+    private void checkDeadlock(Direction direction) {
+        if (deadlockedAt < 0) {
+            int boxLine = worker.getLine() + direction.getLineDelta();
+            int boxColumn = worker.getColumn() + direction.getColumnDelta();
+            if (warehouse.isDeadlocked(boxLine, boxColumn)) {
+                deadlockedAt = history.size();
             }
         }
     }
 
+    private static void checkMove(char move) {
+        if (!Character.isWhitespace(move)) {
+            directionOf(move);
+        }
+    }
+
+    private static Direction directionOf(char move) {
+        return switch (move) {
+            case 'l', 'L' -> Direction.LEFT;
+            case 'u', 'U' -> Direction.UP;
+            case 'r', 'R' -> Direction.RIGHT;
+            case 'd', 'D' -> Direction.DOWN;
+            default -> throw new IllegalArgumentException("Invalid move: " + move);
+        };
+    }
+
+    /**
+     * Takes back the last move, pulling back the box it pushed if any.
+     *
+     * @return true if a move was undone, false if there is nothing to undo
+     */
+    public boolean undo() {
+        if (!history.canUndo()) {
+            return false;
+        }
+        int move = history.undo();
+        Direction direction = MoveHistory.directionOf(move);
+        warehouse.undoMove(worker.getLine(), worker.getColumn(), direction, MoveHistory.isPush(move));
+        worker.move(direction.reverse());
+        if (history.size() < deadlockedAt) {
+            deadlockedAt = -1;
+        }
+        return true;
+    }
+
+    /**
+     * Makes again the last move undone. Any new {@link #action(Direction)} discards the moves to redo.
+     *
+     * @return true if a move was redone, false if there is nothing to redo
+     */
+    public boolean redo() {
+        if (!history.canRedo()) {
+            return false;
+        }
+        int move = history.redo();
+        Direction direction = MoveHistory.directionOf(move);
+        warehouse.moveWorker(worker.getLine(), worker.getColumn(), direction);
+        worker.move(direction);
+        if (MoveHistory.isPush(move)) {
+            checkDeadlock(direction);
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether the level can no longer be solved without undoing moves, because a push left a box
+     * on a dead square or froze boxes that are not all on storage areas.
+     */
+    public boolean isDeadlocked() {
+        return deadlockedAt >= 0;
+    }
+
     public boolean levelEnd() {
     	return warehouse.checkVictory();
     }
 
+    /**
+     * Returns the Zobrist hash of the current box and worker positions.
+     */
+    public long getZobristHash() {
+    	return warehouse.getZobristHash();
+    }
+
+    /**
+     * Returns the level being played, whose identity tells levels apart.
+     */
+    LevelTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the hash of the current position with the worker on the canonical square of its region.
+     *
+     * @see Warehouse#getNormalizedHash()
+     */
+    public long getNormalizedHash() {
+    	return warehouse.getNormalizedHash();
+    }
+
     public int getLevel() {
     	return level;
     }
@@ -96,8 +298,10 @@ public class Controller {
 	}
 
     public void restart() {
+		this.history.clear();
+		this.deadlockedAt = -1;
 		this.worker = new Worker();
-    	this.warehouse = new Warehouse(this.pathToLevel, this.worker);
+    	this.warehouse = new Warehouse(this.template, this.worker);
 	}
 
 	/**
@@ -106,7 +310,7 @@ public class Controller {
 	 * @param path The path to parse, e.g. "levels/level2.txt"
 	 * @return The level number as an {@link Optional} or an empty {@link Optional} if it cannot be parsed.
 	 */
-	Optional<Integer> parseLevel(String path) {
+	static Optional<Integer> parseLevel(String path) {
 		final Pattern pattern = Pattern.compile("\\d+");
 		final Matcher matcher = pattern.matcher(path);
 		return matcher.find() ? Optional.of(Integer.parseInt(matcher.group())) : Optional.empty();
@@ -1,10 +1,54 @@
 package logic;
 
 public enum Direction {
-    UP,
-    DOWN,
-    LEFT,
-    RIGHT;
+    UP(-1, 0),
+    DOWN(1, 0),
+    LEFT(0, -1),
+    RIGHT(0, 1);
+
+    private final int lineDelta;
+    private final int columnDelta;
+
+    Direction(int lineDelta, int columnDelta) {
+        this.lineDelta = lineDelta;
+        this.columnDelta = columnDelta;
+    }
+
+    public int getLineDelta() {
+        return lineDelta;
+    }
+
+    public int getColumnDelta() {
+        return columnDelta;
+    }
+
+    /**
+     * Returns the position of this direction in tables with one entry per direction, such as the
+     * neighbour offsets of a board.
+     *
+     * @see #ofIndex(int)
+     */
+    int index() {
+        return switch (this) {
+            case UP    -> 0;
+            case DOWN  -> 1;
+            case LEFT  -> 2;
+            case RIGHT -> 3;
+        };
+    }
+
+    /**
+     * Returns the direction at a position of the tables indexed by {@link #index()}.
+     */
+    static Direction ofIndex(int index) {
+        return switch (index) {
+            case 0 -> UP;
+            case 1 -> DOWN;
+            case 2 -> LEFT;
+            case 3 -> RIGHT;
+            default -> throw new IllegalArgumentException("Invalid direction index: " + index);
+        };
+    }
 
     public Direction reverse() {
         return switch (this) {
@@ -16,4 +60,3 @@ public enum Direction {
     }
 }
 
-
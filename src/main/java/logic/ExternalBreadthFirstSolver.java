@@ -0,0 +1,529 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Breadth-first search of the push graph with its layers on disk, for levels whose states do not fit
+ * in memory. It finds a solution with the fewest pushes.
+ * <p>
+ * Each layer is a file of packed states in ascending order. The next layer is generated by reading the
+ * last one sequentially, collecting children in memory and writing them out as sorted runs; the runs are
+ * then merged, at most {@value #MAX_FAN_IN} at a time, while dropping the duplicates and every state of
+ * the earlier layers. Those are streamed alongside from a few sorted files, merged like the digits of a
+ * binary counter so that each state is rewritten a logarithmic number of times over the search.
+ * No parent is stored: once a solved state is found, the solution is traced back by pulling boxes and
+ * looking up each candidate predecessor in the previous layer by binary search.
+ * All files live in a scratch directory that is deleted afterwards, and are read and written through
+ * {@link FileChannel}s in large sequential blocks, within a fixed memory budget per merge.
+ */
+@NullMarked
+public final class ExternalBreadthFirstSolver implements Solver {
+    private static final int MAX_SQUARES = 1 << Short.SIZE;
+    private static final int BLOCK_BYTES = 1 << 20;
+    private static final int MAX_FAN_IN = 16;
+    // Shared by the block buffers of the files read by a merge
+    private static final int MERGE_BUFFER_BYTES = 16 << 20;
+    private static final int MIN_BLOCK_BYTES = 64 << 10;
+    // The number of records merged between two checks of the time limit, a power of two
+    private static final int RECORDS_PER_DEADLINE_CHECK = 1 << 12;
+
+    private final Path scratchDirectory;
+    private final int statesPerRun;
+
+    /**
+     * @param scratchDirectory the directory in which each run creates, then deletes, its own directory
+     * @param statesPerRun     the number of states collected in memory before they are written as a sorted run
+     */
+    public ExternalBreadthFirstSolver(Path scratchDirectory, int statesPerRun) {
+        checkArgument(statesPerRun > 0, "Invalid number of states per run: %s", statesPerRun);
+        this.scratchDirectory = scratchDirectory;
+        this.statesPerRun = statesPerRun;
+    }
+
+    @Override
+    public SolverResult solve(Warehouse warehouse, SearchLimits limits) {
+        PushBoard board = PushBoard.of(warehouse);
+        checkArgument(board.squares() <= MAX_SQUARES, "Level too large for packed states: %s squares", board.squares());
+        try {
+            Path directory = Files.createTempDirectory(scratchDirectory, "sokoban-bfs-");
+            try {
+                return new Search(board, limits, directory).run();
+            } finally {
+                deleteRecursively(directory);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The state of one run.
+     */
+    private final class Search {
+        private final PushBoard board;
+        private final SearchLimits limits;
+        private final long deadline;
+        private final Path directory;
+        private final Reachability reachability;
+        private final Reachability childReachability;
+        private final int boxCount;
+        private final int recordBytes;
+        private final List<Path> layers = new ArrayList<>();
+        // Every state of the layers, as disjoint sorted files of decreasing sizes, some of them layers
+        private final List<Path> visited = new ArrayList<>();
+        private long explored;
+        private int fileCount;
+
+        Search(PushBoard board, SearchLimits limits, Path directory) {
+            this.board = board;
+            this.limits = limits;
+            this.deadline = limits.deadline();
+            this.directory = directory;
+            this.reachability = new Reachability(board);
+            this.childReachability = new Reachability(board);
+            this.boxCount = board.boxCount();
+            this.recordBytes = (boxCount + 1) * Short.BYTES;
+        }
+
+        /**
+         * Runs the search. On any outcome, the files it leaves behind are deleted with its directory.
+         */
+        SolverResult run() throws IOException {
+            try {
+                return search();
+            } catch (TimeLimitReached e) {
+                return SolverResult.failed(SolverResult.Status.TIME_LIMIT_REACHED, explored);
+            }
+        }
+
+        private SolverResult search() throws IOException, TimeLimitReached {
+            State start = board.start();
+            if (board.isSolved(start.boxes())) {
+                return SolverResult.solved(board, new int[0], 1);
+            }
+            Path first = newFile("layer");
+            try (RecordWriter writer = new RecordWriter(first, recordBytes)) {
+                writer.write(pack(start));
+            }
+            layers.add(first);
+            addToVisited(first);
+            explored = 1;
+
+            while (true) {
+                List<Path> runs = expand(layers.getLast());
+                while (runs.size() > MAX_FAN_IN) {
+                    runs = mergePass(runs);
+                }
+                Path next = newFile("layer");
+                byte[] solved = merge(runs, next, visited);
+                for (Path run : runs) {
+                    Files.delete(run);
+                }
+                long size = Files.size(next) / recordBytes;
+                if (size == 0) {
+                    return SolverResult.failed(SolverResult.Status.UNSOLVABLE, explored);
+                }
+                layers.add(next);
+                addToVisited(next);
+                explored += size;
+                if (solved != null) {
+                    return SolverResult.solved(board, traceBack(unpack(solved)), explored);
+                }
+                if (explored >= limits.maxStates()) {
+                    return SolverResult.failed(SolverResult.Status.STATE_LIMIT_REACHED, explored);
+                }
+            }
+        }
+
+        /**
+         * Generates the children of a layer as sorted runs without duplicates.
+         *
+         * @return the run files
+         * @throws TimeLimitReached if the time limit was reached before the layer was expanded
+         */
+        private List<Path> expand(Path layer) throws IOException, TimeLimitReached {
+            List<Path> runs = new ArrayList<>();
+            byte[][] buffer = new byte[statesPerRun][];
+            int buffered = 0;
+            try (RecordReader reader = new RecordReader(layer, recordBytes)) {
+                while (reader.next()) {
+                    if (SearchLimits.isPast(deadline)) {
+                        throw new TimeLimitReached();
+                    }
+                    State state = unpack(reader.current());
+                    int[] boxes = state.boxes();
+                    reachability.fill(state.worker(), boxes);
+                    for (int i = 0; i < boxes.length; i++) {
+                        for (int direction = 0; direction < 4; direction++) {
+                            if (!reachability.canPush(boxes[i], direction)) {
+                                continue;
+                            }
+                            buffer[buffered++] = pack(board.push(state, i, direction, childReachability));
+                            if (buffered == statesPerRun) {
+                                runs.add(writeRun(buffer, buffered));
+                                buffered = 0;
+                            }
+                        }
+                    }
+                }
+            }
+            if (buffered > 0) {
+                runs.add(writeRun(buffer, buffered));
+            }
+            return runs;
+        }
+
+        private Path writeRun(byte[][] buffer, int count) throws IOException {
+            Arrays.sort(buffer, 0, count, Arrays::compareUnsigned);
+            Path run = newFile("run");
+            try (RecordWriter writer = new RecordWriter(run, recordBytes)) {
+                for (int i = 0; i < count; i++) {
+                    if (i == 0 || !Arrays.equals(buffer[i], buffer[i - 1])) {
+                        writer.write(buffer[i]);
+                    }
+                }
+            }
+            return run;
+        }
+
+        /**
+         * Merges the runs in groups of {@value #MAX_FAN_IN}, dropping duplicates, and deletes them.
+         *
+         * @return the merged runs
+         */
+        private List<Path> mergePass(List<Path> runs) throws IOException, TimeLimitReached {
+            List<Path> merged = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+                List<Path> group = runs.subList(from, Math.min(from + MAX_FAN_IN, runs.size()));
+                Path run = newFile("run");
+                merge(group, run, List.of());
+                for (Path input : group) {
+                    Files.delete(input);
+                }
+                merged.add(run);
+            }
+            return merged;
+        }
+
+        /**
+         * Merges sorted runs into one file, keeping each state once and only if no excluded file has it.
+         *
+         * @param excluded sorted files of states to leave out, the visited states when merging a new layer
+         * @return a solved state of the new layer, or null if there is none or no state was excluded
+         * @throws TimeLimitReached if the time limit was reached before the merge was over
+         */
+        private byte @Nullable [] merge(List<Path> runs, Path output, List<Path> excluded)
+            throws IOException, TimeLimitReached {
+            int blockBytes = Math.max(MERGE_BUFFER_BYTES / (runs.size() + excluded.size() + 1), MIN_BLOCK_BYTES);
+            List<RecordReader> readers = new ArrayList<>();
+            try (RecordWriter writer = new RecordWriter(output, recordBytes, blockBytes)) {
+                PriorityQueue<RecordReader> pending = new PriorityQueue<>(
+                    Comparator.comparing(RecordReader::current, Arrays::compareUnsigned));
+                for (Path run : runs) {
+                    RecordReader reader = new RecordReader(run, recordBytes, blockBytes);
+                    readers.add(reader);
+                    if (reader.next()) {
+                        pending.add(reader);
+                    }
+                }
+                List<Lookup> lookups = new ArrayList<>();
+                for (Path file : excluded) {
+                    RecordReader reader = new RecordReader(file, recordBytes, blockBytes);
+                    readers.add(reader);
+                    lookups.add(new Lookup(reader));
+                }
+
+                byte[] solved = null;
+                byte[] previous = null;
+                int merged = 0;
+                while (!pending.isEmpty()) {
+                    if ((++merged & (RECORDS_PER_DEADLINE_CHECK - 1)) == 0 && SearchLimits.isPast(deadline)) {
+                        throw new TimeLimitReached();
+                    }
+                    RecordReader reader = pending.remove();
+                    byte[] record = reader.current().clone();
+                    if (reader.next()) {
+                        pending.add(reader);
+                    }
+                    if (previous != null && Arrays.equals(record, previous)) {
+                        continue;
+                    }
+                    previous = record;
+                    if (isExcluded(lookups, record)) {
+                        continue;
+                    }
+                    writer.write(record);
+                    if (solved == null && !excluded.isEmpty() && board.isSolved(unpack(record).boxes())) {
+                        solved = record;
+                    }
+                }
+                return solved;
+            } finally {
+                for (RecordReader reader : readers) {
+                    reader.close();
+                }
+            }
+        }
+
+        private static boolean isExcluded(List<Lookup> lookups, byte[] record) throws IOException {
+            for (Lookup lookup : lookups) {
+                if (lookup.contains(record)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds a new layer, which has none of the visited states, to the visited files. Like the carries
+         * of a binary counter, the smallest files are merged while the last one is at least half as large
+         * as the one before it, which keeps the number of files logarithmic in the number of states.
+         */
+        private void addToVisited(Path layer) throws IOException, TimeLimitReached {
+            visited.add(layer);
+            while (visited.size() > 1
+                && 2 * Files.size(visited.getLast()) >= Files.size(visited.get(visited.size() - 2))) {
+                Path last = visited.removeLast();
+                Path before = visited.removeLast();
+                Path merged = newFile("visited");
+                merge(List.of(before, last), merged, List.of());
+                for (Path file : List.of(before, last)) {
+                    if (!layers.contains(file)) {
+                        Files.delete(file); // layers are kept to trace the solution back
+                    }
+                }
+                visited.add(merged);
+            }
+        }
+
+        /**
+         * Finds the pushes to a solved state of the last layer by looking up in each layer a state
+         * from which a push leads to the state found in the layer after it.
+         */
+        private int[] traceBack(State solved) throws IOException {
+            ArrayDeque<Integer> pushes = new ArrayDeque<>();
+            State state = solved;
+            for (int depth = layers.size() - 2; depth >= 0; depth--) {
+                try (FileChannel channel = FileChannel.open(layers.get(depth), StandardOpenOption.READ)) {
+                    State parent = null;
+                    int[] boxes = state.boxes();
+                    reachability.fill(state.worker(), boxes);
+                    for (int i = 0; i < boxes.length && parent == null; i++) {
+                        for (int direction = 0; direction < 4 && parent == null; direction++) {
+                            if (!reachability.canPull(boxes[i], direction)) {
+                                continue;
+                            }
+                            State candidate = board.pull(state, i, direction, childReachability);
+                            if (contains(channel, pack(candidate))) {
+                                parent = candidate;
+                                pushes.addFirst(board.pushUndoneBy(boxes[i], direction));
+                            }
+                        }
+                    }
+                    if (parent == null) {
+                        throw new IllegalStateException("No predecessor found in layer " + depth);
+                    }
+                    state = parent;
+                }
+            }
+            return pushes.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private boolean contains(FileChannel channel, byte[] record) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(recordBytes);
+            long low = 0;
+            long high = channel.size() / recordBytes - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer, middle * recordBytes + buffer.position()) >= 0) {
+                    // read the whole record
+                }
+                int comparison = Arrays.compareUnsigned(buffer.array(), record);
+                if (comparison == 0) {
+                    return true;
+                }
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Packs a state as unsigned big-endian shorts, the boxes followed by the worker, so that
+         * comparing records as unsigned bytes orders states.
+         */
+        private byte[] pack(State state) {
+            ByteBuffer record = ByteBuffer.allocate(recordBytes);
+            for (int box : state.boxes()) {
+                record.putShort((short) box);
+            }
+            record.putShort((short) state.worker());
+            return record.array();
+        }
+
+        private State unpack(byte[] record) {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            int[] boxes = new int[boxCount];
+            for (int i = 0; i < boxCount; i++) {
+                boxes[i] = Short.toUnsignedInt(buffer.getShort());
+            }
+            return new State(boxes, Short.toUnsignedInt(buffer.getShort()));
+        }
+
+        private Path newFile(String prefix) {
+            return directory.resolve("%s-%d".formatted(prefix, fileCount++));
+        }
+    }
+
+    /**
+     * Answers membership queries on a sorted file for records asked in ascending order, reading it once.
+     */
+    private static final class Lookup {
+        private final RecordReader reader;
+        private boolean more;
+
+        Lookup(RecordReader reader) throws IOException {
+            this.reader = reader;
+            this.more = reader.next();
+        }
+
+        boolean contains(byte[] record) throws IOException {
+            int comparison = -1;
+            while (more && (comparison = Arrays.compareUnsigned(reader.current(), record)) < 0) {
+                more = reader.next();
+            }
+            return more && comparison == 0;
+        }
+    }
+
+    /**
+     * Appends fixed-width records to a file in large blocks.
+     */
+    private static final class RecordWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer block;
+
+        RecordWriter(Path file, int recordBytes) throws IOException {
+            this(file, recordBytes, BLOCK_BYTES);
+        }
+
+        RecordWriter(Path file, int recordBytes, int blockBytes) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            this.block = ByteBuffer.allocateDirect(Math.max(blockBytes / recordBytes, 1) * recordBytes);
+        }
+
+        void write(byte[] record) throws IOException {
+            if (block.remaining() < record.length) {
+                flush();
+            }
+            block.put(record);
+        }
+
+        private void flush() throws IOException {
+            block.flip();
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+            block.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads fixed-width records from a file in large blocks.
+     */
+    private static final class RecordReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer block;
+        private final byte[] current;
+
+        RecordReader(Path file, int recordBytes) throws IOException {
+            this(file, recordBytes, BLOCK_BYTES);
+        }
+
+        RecordReader(Path file, int recordBytes, int blockBytes) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.block = ByteBuffer.allocateDirect(Math.max(blockBytes / recordBytes, 1) * recordBytes);
+            this.block.flip();
+            this.current = new byte[recordBytes];
+        }
+
+        /**
+         * Moves on to the next record.
+         *
+         * @return false at the end of the file
+         */
+        boolean next() throws IOException {
+            if (block.remaining() < current.length) {
+                block.compact();
+                while (block.position() < current.length && channel.read(block) >= 0) {
+                    // fill at least one record
+                }
+                block.flip();
+                if (block.remaining() < current.length) {
+                    return false;
+                }
+            }
+            block.get(current);
+            return true;
+        }
+
+        /**
+         * @return the record read by the last call to {@link #next()}, overwritten by the next one
+         */
+        byte[] current() {
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Thrown when the time limit is reached in the middle of a step of the search.
+     */
+    private static final class TimeLimitReached extends Exception {
+        TimeLimitReached() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
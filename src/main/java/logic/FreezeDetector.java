@@ -0,0 +1,95 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Detects freeze deadlocks: boxes that can never move again, not all of them on storage areas.
+ * <p>
+ * A box is frozen when it is blocked both vertically and horizontally. It is blocked along an axis by a
+ * wall on either side, by dead squares on both sides, or by a frozen box on either side; boxes whose
+ * check is in progress count as walls, so that a group of boxes holding each other is frozen. Only the
+ * boxes around the one just pushed are looked at, so a check takes microseconds.
+ * An instance holds scratch buffers and must not be shared between threads.
+ */
+@NullMarked
+final class FreezeDetector {
+
+    /**
+     * The squares of a board, numbered like the tiles of a {@link Warehouse}.
+     */
+    interface Board {
+        boolean isWall(int square);
+
+        boolean isBox(int square);
+
+        boolean isGoal(int square);
+
+        boolean isDead(int square);
+    }
+
+    private static final int UP = Direction.UP.index();
+    private static final int DOWN = Direction.DOWN.index();
+    private static final int LEFT = Direction.LEFT.index();
+    private static final int RIGHT = Direction.RIGHT.index();
+
+    private final int[] offsets;
+    private final int[] marks;
+    private final int[] frozen;
+    private int frozenCount;
+    private int stamp;
+
+    FreezeDetector(int squares, int[] offsets) {
+        this.offsets = offsets;
+        this.marks = new int[squares];
+        this.frozen = new int[squares];
+    }
+
+    /**
+     * Tells whether the given box is frozen together with at least one box that is not on a storage area.
+     */
+    boolean isDeadlock(Board board, int box) {
+        stamp++;
+        frozenCount = 0;
+        if (!isFrozen(board, box)) {
+            return false;
+        }
+        for (int i = 0; i < frozenCount; i++) {
+            if (!board.isGoal(frozen[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFrozen(Board board, int box) {
+        marks[box] = stamp;
+        int firstFrozen = frozenCount;
+        if (isBlocked(board, box, UP, DOWN) && isBlocked(board, box, LEFT, RIGHT)) {
+            frozen[frozenCount++] = box;
+            return true;
+        }
+        // Boxes found frozen on the assumption that this one could not move are not frozen after all
+        for (int i = firstFrozen; i < frozenCount; i++) {
+            marks[frozen[i]] = 0;
+        }
+        frozenCount = firstFrozen;
+        marks[box] = 0;
+        return false;
+    }
+
+    private boolean isBlocked(Board board, int box, int direction, int opposite) {
+        int one = box + offsets[direction];
+        int other = box + offsets[opposite];
+        if (board.isWall(one) || board.isWall(other)) {
+            return true;
+        }
+        if (board.isDead(one) && board.isDead(other)) {
+            return true;
+        }
+        return isFrozenBox(board, one) || isFrozenBox(board, other);
+    }
+
+    private boolean isFrozenBox(Board board, int square) {
+        return board.isBox(square) && (marks[square] == stamp || isFrozen(board, square));
+    }
+}
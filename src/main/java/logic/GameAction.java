@@ -3,5 +3,6 @@ package logic;
 public enum GameAction {
 	STEP_BACK,
 	RESTART,
+	HINT,
 	STOP
 }
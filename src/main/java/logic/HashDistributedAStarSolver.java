@@ -0,0 +1,285 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Hash-distributed A* (HDA*) search of the push graph, which finds a solution with the fewest pushes.
+ * <p>
+ * Each thread owns the states whose hash maps to it, with its own open list and visited map, so no
+ * lock is shared. A generated state is sent to the lock-free mailbox of its owner, which
+ * ranks it with the {@link AssignmentBound} like {@link AStarSolver} does. Once a solution is found, the
+ * search goes on until no thread holds a state estimated cheaper and no state is in flight, which keeps
+ * it optimal; a search stopped by its limits before that reports the limit rather than the solution.
+ * A thread with nothing to do parks until a sender unparks it with mail, or until the search is over.
+ */
+@NullMarked
+public final class HashDistributedAStarSolver implements Solver {
+    // How long an idle thread parks before checking again whether the search is over
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int parallelism;
+
+    /**
+     * Creates a solver using one thread per available core.
+     */
+    public HashDistributedAStarSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism the number of threads of the search
+     */
+    public HashDistributedAStarSolver(int parallelism) {
+        checkArgument(parallelism > 0, "Invalid parallelism: %s", parallelism);
+        this.parallelism = parallelism;
+    }
+
+    private record Node(@Nullable State parent, int push, int pushes) {}
+
+    private record Message(State state, @Nullable State parent, int push, int pushes) {}
+
+    private record Entry(State state, int pushes, int estimate) {}
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::estimate)
+        .thenComparing(Comparator.comparingInt(Entry::pushes).reversed());
+
+    @Override
+    public SolverResult solve(Warehouse warehouse, SearchLimits limits) {
+        PushBoard board = PushBoard.of(warehouse);
+        State start = board.start();
+        if (board.isSolved(start.boxes())) {
+            return SolverResult.solved(board, new int[0], 1);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+            Thread.ofPlatform().name("hda-", 0).daemon().factory());
+        try {
+            return new Search(board, limits).run(start, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The state of one run, shared by its workers.
+     */
+    private final class Search {
+        private final PushBoard board;
+        private final SearchLimits limits;
+        private final long deadline;
+        private final List<SearchWorker> workers = new ArrayList<>();
+        private final AtomicLong stored = new AtomicLong();
+        // Active workers plus messages in flight: the search is over when it drops to zero
+        private final AtomicLong work = new AtomicLong();
+        private volatile SolverResult.@Nullable Status stop;
+        private volatile int incumbent = Integer.MAX_VALUE;
+        private @Nullable State solution;
+
+        Search(PushBoard board, SearchLimits limits) {
+            this.board = board;
+            this.limits = limits;
+            this.deadline = limits.deadline();
+            for (int i = 0; i < parallelism; i++) {
+                workers.add(new SearchWorker());
+            }
+        }
+
+        SolverResult run(State start, ExecutorService executor) {
+            send(new Message(start, null, -1, 0));
+            List<Future<?>> running = workers.stream()
+                .<Future<?>>map(worker -> executor.submit(worker::run))
+                .toList();
+            try {
+                for (Future<?> future : running) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+
+            SolverResult.Status status = stop;
+            if (status != null) {
+                // Any solution found so far may not be the shortest
+                return SolverResult.failed(status, stored.get());
+            }
+            State solved = solution;
+            if (solved != null) {
+                return SolverResult.solved(board, pushesTo(solved), stored.get());
+            }
+            return SolverResult.failed(SolverResult.Status.UNSOLVABLE, stored.get());
+        }
+
+        private SearchWorker ownerOf(State state) {
+            int hash = state.hashCode();
+            return workers.get(Math.floorMod(hash ^ hash >>> 16, parallelism));
+        }
+
+        private void send(Message message) {
+            work.incrementAndGet();
+            SearchWorker owner = ownerOf(message.state());
+            owner.mailbox.add(message);
+            owner.wakeUp();
+        }
+
+        private void wakeUpAll() {
+            for (SearchWorker worker : workers) {
+                worker.wakeUp();
+            }
+        }
+
+        private synchronized void offerSolution(State state, int pushes) {
+            if (pushes < incumbent) {
+                solution = state;
+                incumbent = pushes;
+            }
+        }
+
+        private int[] pushesTo(State state) {
+            ArrayDeque<Integer> pushes = new ArrayDeque<>();
+            Node node = ownerOf(state).visited.get(state);
+            while (node != null && node.parent() != null) {
+                pushes.addFirst(node.push());
+                node = ownerOf(node.parent()).visited.get(node.parent());
+            }
+            return pushes.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * A thread of the search, with the open list and visited map of its slice of the states.
+         */
+        private final class SearchWorker {
+            private final Queue<Message> mailbox = new ConcurrentLinkedQueue<>();
+            private final Map<State, Node> visited = new HashMap<>();
+            private final PriorityQueue<Entry> open = new PriorityQueue<>(ORDER);
+            private final Reachability reachability = new Reachability(board);
+            private final Reachability childReachability = new Reachability(board);
+            private final AssignmentBound bound = new AssignmentBound(PushDistances.of(board));
+            private volatile @Nullable Thread thread;
+            private boolean active;
+
+            void run() {
+                thread = Thread.currentThread();
+                try {
+                    search();
+                } finally {
+                    // Let the other threads see at once that the search is over
+                    wakeUpAll();
+                }
+            }
+
+            private void search() {
+                while (stop == null) {
+                    if (SearchLimits.isPast(deadline)) {
+                        stop = SolverResult.Status.TIME_LIMIT_REACHED;
+                        return;
+                    }
+                    Message message = mailbox.poll();
+                    if (message != null) {
+                        // Count this worker in before the message is counted out, so work never drops to zero here
+                        activate();
+                        receive(message);
+                        work.decrementAndGet();
+                        continue;
+                    }
+                    Entry entry = open.peek();
+                    if (entry == null || entry.estimate() >= incumbent) {
+                        if (active) {
+                            active = false;
+                            work.decrementAndGet();
+                        }
+                        if (work.get() == 0) {
+                            return;
+                        }
+                        // A message sent after the poll above unparks this thread, so it cannot be missed
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                        continue;
+                    }
+                    activate();
+                    expand(open.remove());
+                }
+            }
+
+            private void wakeUp() {
+                Thread owner = thread;
+                if (owner != null) {
+                    LockSupport.unpark(owner);
+                }
+            }
+
+            private void activate() {
+                if (!active) {
+                    active = true;
+                    work.incrementAndGet();
+                }
+            }
+
+            private void receive(Message message) {
+                State state = message.state();
+                Node known = visited.get(state);
+                if (known != null && known.pushes() <= message.pushes()) {
+                    return;
+                }
+                int stateBound = bound.of(state.boxes());
+                visited.put(state, new Node(message.parent(), message.push(), message.pushes()));
+                if (known == null && stored.incrementAndGet() >= limits.maxStates()) {
+                    stop = SolverResult.Status.STATE_LIMIT_REACHED;
+                }
+                if (stateBound != AssignmentBound.DEADLOCK) {
+                    open.add(new Entry(state, message.pushes(), message.pushes() + stateBound));
+                }
+            }
+
+            private void expand(Entry entry) {
+                State state = entry.state();
+                Node node = visited.get(state);
+                if (node == null || node.pushes() < entry.pushes()) {
+                    return; // superseded by a shorter path to the same state
+                }
+                int[] boxes = state.boxes();
+                if (board.isSolved(boxes)) {
+                    offerSolution(state, entry.pushes());
+                    return;
+                }
+                reachability.fill(state.worker(), boxes);
+                int pushes = entry.pushes() + 1;
+                for (int i = 0; i < boxes.length; i++) {
+                    for (int direction = 0; direction < 4; direction++) {
+                        if (!reachability.canPush(boxes[i], direction)) {
+                            continue;
+                        }
+                        State child = board.push(state, i, direction, childReachability);
+                        Message message = new Message(child, state, PushBoard.packPush(boxes[i], direction), pushes);
+                        if (ownerOf(child) == this) {
+                            receive(message);
+                        } else {
+                            send(message);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
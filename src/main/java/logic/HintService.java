@@ -0,0 +1,148 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Finds the next push of an optimal solution from the position of a game, without blocking the caller.
+ * <p>
+ * Searches run on a background thread within a time budget counted from when the hint is asked for, on a
+ * copy of the position taken then. Asking for a hint on another position cancels the searches still
+ * waiting for the thread, as only the latest position is of interest. Once a solution is found, the next
+ * push of every position along it is cached by level and {@link Warehouse#getNormalizedHash() normalized
+ * hash}, so hints asked again, or while following the solution, are answered at once. The hash only covers boxes and worker, hence the level in the key.
+ * The cache keeps the {@value #CACHE_CAPACITY} most recently used positions.
+ */
+@NullMarked
+public final class HintService {
+    static final int CACHE_CAPACITY = 100_000;
+    static final Duration DEFAULT_BUDGET = Duration.ofSeconds(2);
+
+    private static final ExecutorService hintExecutor =
+        Executors.newSingleThreadExecutor(Thread.ofPlatform().name("hint-solver").daemon().factory());
+
+    private record Position(LevelTemplate level, long hash) {}
+
+    private final Solver solver;
+    private final Duration budget;
+    private final Map<Position, Push> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Position, Push> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+    private final Map<Position, CompletableFuture<Optional<Push>>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a service looking for push-optimal solutions with {@link AStarSolver} for up to
+     * {@link #DEFAULT_BUDGET} per hint.
+     */
+    public HintService() {
+        this(new AStarSolver(), DEFAULT_BUDGET);
+    }
+
+    /**
+     * @param solver the solver looking for solutions
+     * @param budget the time after which a search gives up without hint
+     */
+    public HintService(Solver solver, Duration budget) {
+        this.solver = solver;
+        this.budget = budget;
+    }
+
+    /**
+     * Looks for the next push from the current position of a game. It must be called on the thread that
+     * plays the game, usually the event dispatch thread; the game can go on while the search runs.
+     *
+     * @return the next push, or an empty optional if the level is over, lost, or not solved within the budget;
+     * the future is cancelled if a hint is asked for on another position before its search starts
+     */
+    public CompletableFuture<Optional<Push>> nextPush(Controller controller) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        LevelTemplate level = controller.getTemplate();
+        Position position = new Position(level, controller.getNormalizedHash());
+        cancelAllBut(position);
+        Push cached = cached(position);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Optional.of(cached));
+        }
+        if (controller.levelEnd() || controller.isDeadlocked()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        Warehouse warehouse = controller.getWarehouse().snapshot();
+        Worker worker = new Worker();
+        worker.moveTo(controller.getWorker().getLine(), controller.getWorker().getColumn());
+        CompletableFuture<Optional<Push>> search = pending.computeIfAbsent(position,
+            _ -> CompletableFuture.supplyAsync(() -> solve(level, warehouse, worker, deadline), hintExecutor));
+        // Registered outside computeIfAbsent, as a search already over runs the cleanup at once.
+        // The search itself is returned, so that cancelling it skips it if it has not started yet.
+        var unused = search.whenComplete((_, _) -> pending.remove(position, search));
+        return search;
+    }
+
+    /**
+     * Cancels the searches for other positions. A cancelled search that has not started yet is skipped
+     * by the executor; one already running ends within its budget.
+     */
+    private void cancelAllBut(Position position) {
+        pending.forEach((other, search) -> {
+            if (!other.equals(position)) {
+                search.cancel(false);
+            }
+        });
+    }
+
+    private Optional<Push> solve(LevelTemplate level, Warehouse warehouse, Worker worker, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return Optional.empty();
+        }
+        SearchLimits limits = new SearchLimits(Duration.ofNanos(remaining), SearchLimits.DEFAULT.maxStates());
+        SolverResult result = solver.solve(warehouse, limits);
+        if (!result.isSolved()) {
+            return Optional.empty();
+        }
+        remember(level, warehouse, worker, result);
+        return result.pushes().stream().findFirst();
+    }
+
+    /**
+     * Replays a solution, caching the push to make from each position it goes through.
+     */
+    private void remember(LevelTemplate level, Warehouse warehouse, Worker worker, SolverResult result) {
+        Iterator<Push> pushes = result.pushes().iterator();
+        for (Direction move : result.moves()) {
+            if (warehouse.isBoxAdjacent(worker.getLine(), worker.getColumn(), move)) {
+                Push push = pushes.next();
+                synchronized (cache) {
+                    cache.put(new Position(level, warehouse.getNormalizedHash()), push);
+                }
+            }
+            warehouse.moveWorker(worker.getLine(), worker.getColumn(), move);
+            worker.move(move);
+        }
+    }
+
+    private @Nullable Push cached(Position position) {
+        synchronized (cache) {
+            return cache.get(position);
+        }
+    }
+
+    int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
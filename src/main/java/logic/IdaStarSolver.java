@@ -0,0 +1,191 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Iterative-deepening A* search of the push graph, which finds a solution with the fewest pushes in
+ * memory linear in the depth of the solution.
+ * <p>
+ * Each iteration is a depth-first search cut off where pushes made plus the {@link AssignmentBound}
+ * exceed a threshold, which is raised to the lowest estimate cut off until a solution is found.
+ * Only the current path is kept, so states reached along several paths are searched again; an optional
+ * transposition table of fixed size remembers recently searched states to skip most of that work.
+ * As no state is kept, {@link SearchLimits#maxStates()} bounds the number of states generated over
+ * all iterations instead.
+ */
+@NullMarked
+public final class IdaStarSolver implements Solver {
+
+    private final int tableSize;
+
+    /**
+     * Creates a solver without transposition table.
+     */
+    public IdaStarSolver() {
+        this(0);
+    }
+
+    /**
+     * @param transpositionTableSize the number of states the transposition table can hold, rounded up
+     *                               to a power of two, or 0 for no table
+     */
+    public IdaStarSolver(int transpositionTableSize) {
+        checkArgument(transpositionTableSize >= 0 && transpositionTableSize <= 1 << 30,
+            "Invalid transposition table size: %s", transpositionTableSize);
+        this.tableSize = transpositionTableSize <= 1
+            ? transpositionTableSize
+            : Integer.highestOneBit(transpositionTableSize - 1) << 1;
+    }
+
+    @Override
+    public SolverResult solve(Warehouse warehouse, SearchLimits limits) {
+        return new Search(PushBoard.of(warehouse), limits).run();
+    }
+
+    private record Child(State state, int push, int estimate) {}
+
+    private static final Comparator<Child> ORDER = Comparator.comparingInt(Child::estimate);
+
+    /**
+     * The state of one run, which is not shared between threads.
+     */
+    private final class Search {
+        private final PushBoard board;
+        private final SearchLimits limits;
+        private final long deadline;
+        private final Reachability reachability;
+        private final Reachability childReachability;
+        private final AssignmentBound bound;
+        private final Set<State> onPath = new HashSet<>();
+        private int[] path = new int[64];
+        private final @Nullable State[] tableStates;
+        private final int[] tablePushes;
+        private int threshold;
+        private int nextThreshold;
+        private long generated;
+        private SolverResult.@Nullable Status stop;
+
+        Search(PushBoard board, SearchLimits limits) {
+            this.board = board;
+            this.limits = limits;
+            this.deadline = limits.deadline();
+            this.reachability = new Reachability(board);
+            this.childReachability = new Reachability(board);
+            this.bound = new AssignmentBound(PushDistances.of(board));
+            this.tableStates = new State[tableSize];
+            this.tablePushes = new int[tableStates.length];
+        }
+
+        SolverResult run() {
+            State start = board.start();
+            generated = 1;
+            threshold = bound.of(start.boxes());
+            if (threshold == AssignmentBound.DEADLOCK) {
+                return SolverResult.failed(SolverResult.Status.UNSOLVABLE, generated);
+            }
+            onPath.add(start);
+            while (true) {
+                nextThreshold = Integer.MAX_VALUE;
+                Arrays.fill(tableStates, null);
+                int depth = search(start, 0);
+                if (depth >= 0) {
+                    return SolverResult.solved(board, Arrays.copyOf(path, depth), generated);
+                }
+                if (stop != null) {
+                    return SolverResult.failed(stop, generated);
+                }
+                if (nextThreshold == Integer.MAX_VALUE) {
+                    return SolverResult.failed(SolverResult.Status.UNSOLVABLE, generated);
+                }
+                threshold = nextThreshold;
+            }
+        }
+
+        /**
+         * @return the number of pushes of the solution found below the state, -1 if there is none
+         */
+        private int search(State state, int pushes) {
+            int[] boxes = state.boxes();
+            if (board.isSolved(boxes)) {
+                return pushes;
+            }
+            if (SearchLimits.isPast(deadline)) {
+                stop = SolverResult.Status.TIME_LIMIT_REACHED;
+                return -1;
+            }
+
+            // Generate all the children before going down, as the fills are reused at every depth
+            reachability.fill(state.worker(), boxes);
+            List<Child> children = new ArrayList<>();
+            for (int i = 0; i < boxes.length; i++) {
+                for (int direction = 0; direction < 4; direction++) {
+                    if (!reachability.canPush(boxes[i], direction)) {
+                        continue;
+                    }
+                    State child = board.push(state, i, direction, childReachability);
+                    generated++;
+                    int childBound = bound.of(child.boxes());
+                    if (childBound == AssignmentBound.DEADLOCK) {
+                        continue;
+                    }
+                    int estimate = pushes + 1 + childBound;
+                    if (estimate > threshold) {
+                        nextThreshold = Math.min(nextThreshold, estimate);
+                        continue;
+                    }
+                    children.add(new Child(child, PushBoard.packPush(boxes[i], direction), estimate));
+                }
+            }
+            if (generated >= limits.maxStates()) {
+                stop = SolverResult.Status.STATE_LIMIT_REACHED;
+                return -1;
+            }
+            children.sort(ORDER);
+
+            if (pushes == path.length) {
+                path = Arrays.copyOf(path, pushes * 2);
+            }
+            for (Child child : children) {
+                if (onPath.contains(child.state()) || isTransposition(child.state(), pushes + 1)) {
+                    continue;
+                }
+                path[pushes] = child.push();
+                onPath.add(child.state());
+                int solution = search(child.state(), pushes + 1);
+                onPath.remove(child.state());
+                if (solution >= 0 || stop != null) {
+                    return solution;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Records the state in the transposition table, unless it was already searched in this iteration
+         * with as few pushes, in which case it is not worth searching again.
+         */
+        private boolean isTransposition(State state, int pushes) {
+            if (tableStates.length == 0) {
+                return false;
+            }
+            int hash = state.hashCode();
+            int slot = (hash ^ hash >>> 16) & (tableStates.length - 1);
+            if (state.equals(tableStates[slot]) && tablePushes[slot] <= pushes) {
+                return true;
+            }
+            tableStates[slot] = state;
+            tablePushes[slot] = pushes;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A process-wide cache of parsed levels, keyed by the path they are read from.
+ * <p>
+ * Once the cache holds more levels than its capacity, the least recently used one is evicted.
+ * The capacity of the shared cache is {@value #DEFAULT_CAPACITY} levels unless set with the
+ * {@code sokoban.levelCache.capacity} system property.
+ * A cached level is parsed again when the modification time or the size of its file changes,
+ * e.g. after the editor rewrote it through {@link LevelFile#write}.
+ */
+@NullMarked
+public final class LevelCache {
+    static final int DEFAULT_CAPACITY = 256;
+
+    private static final LevelCache SHARED =
+        new LevelCache(Integer.getInteger("sokoban.levelCache.capacity", DEFAULT_CAPACITY));
+
+    private record Entry(FileTime lastModified, long size, LevelTemplate template) {}
+
+    private final Map<String, Entry> entries;
+
+    LevelCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static LevelCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the parsed level at the given path, reading it only if it is not cached or its file changed.
+     *
+     * @param pathToLevel The path of the level file, e.g. "levels/level2.txt"
+     * @return the parsed level
+     */
+    public LevelTemplate get(String pathToLevel) {
+        BasicFileAttributes attributes = attributesOf(Paths.get(pathToLevel));
+
+        Entry entry = cached(pathToLevel);
+        if (entry != null
+            && entry.lastModified().equals(attributes.lastModifiedTime())
+            && entry.size() == attributes.size()) {
+            return entry.template();
+        }
+
+        LevelTemplate template = LevelTemplate.read(pathToLevel);
+        synchronized (this) {
+            entries.put(pathToLevel, new Entry(attributes.lastModifiedTime(), attributes.size(), template));
+        }
+        return template;
+    }
+
+    private synchronized @Nullable Entry cached(String pathToLevel) {
+        return entries.get(pathToLevel);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static BasicFileAttributes attributesOf(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * A file of many levels in the usual XSB notation, as found in community level packs (.xsb, .sok, .txt).
+ * <p>
+ * Opening a pack reads it once, as a stream, and only keeps the byte offset of each level, so a pack of
+ * thousands of levels costs a few bytes per level. A level is read and parsed when asked for, by seeking
+ * to its offset.
+ * <p>
+ * A level is a block of consecutive lines made of the characters {@code #@$.*+} and floor, which is
+ * written as a space, {@code -} or {@code _}. Any other line, e.g. a comment or a {@code Title:} line,
+ * separates levels; a {@code Title:} line names the level above it. Run-length encoded levels are not
+ * supported.
+ */
+@NullMarked
+public final class LevelPack {
+    private static final String BOARD_CHARACTERS = "#@$.*+ -_";
+    private static final String TITLE_PREFIX = "title:";
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private record Entry(long offset, int length, @Nullable String title) {}
+
+    private final Path file;
+    private final List<Entry> entries;
+
+    private LevelPack(Path file, List<Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /**
+     * Indexes the levels of a pack, reading the file once from start to end.
+     *
+     * @param file the pack file
+     * @return the indexed pack
+     */
+    public static LevelPack open(Path file) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return new LevelPack(file, index(in));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<Entry> index(InputStream in) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long position = 0;
+        long lineStart = 0;
+        long levelStart = -1;
+        long levelEnd = -1;
+        boolean titled = false;
+
+        for (int b = in.read(); ; b = in.read()) {
+            if (b != '\n' && b != -1) {
+                line.write(b);
+                position++;
+                continue;
+            }
+            String text = line.toString(StandardCharsets.UTF_8).stripTrailing();
+            if (lineStart == 0 && !text.isEmpty() && text.charAt(0) == BYTE_ORDER_MARK) {
+                text = text.substring(1);
+                lineStart = 3; // the length of the mark in UTF-8
+            }
+            if (isBoardLine(text)) {
+                if (levelStart < 0) {
+                    levelStart = lineStart;
+                }
+                levelEnd = lineStart + text.length();
+            } else {
+                if (levelStart >= 0) {
+                    entries.add(new Entry(levelStart, Math.toIntExact(levelEnd - levelStart), null));
+                    levelStart = -1;
+                    titled = false;
+                }
+                if (!titled && !entries.isEmpty()
+                    && text.regionMatches(true, 0, TITLE_PREFIX, 0, TITLE_PREFIX.length())) {
+                    Entry last = entries.getLast();
+                    String title = text.substring(TITLE_PREFIX.length()).strip();
+                    entries.set(entries.size() - 1, new Entry(last.offset(), last.length(), title));
+                    titled = true;
+                }
+            }
+            if (b == -1) {
+                if (levelStart >= 0) {
+                    entries.add(new Entry(levelStart, Math.toIntExact(levelEnd - levelStart), null));
+                }
+                return entries;
+            }
+            position++;
+            lineStart = position;
+            line.reset();
+        }
+    }
+
+    private static boolean isBoardLine(String line) {
+        return line.indexOf('#') >= 0
+            && line.chars().allMatch(c -> BOARD_CHARACTERS.indexOf(c) >= 0);
+    }
+
+    /**
+     * Returns the number of levels in the pack.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the title of a level, if the pack gives one.
+     *
+     * @param index the index of a level, from 0
+     */
+    public Optional<String> title(int index) {
+        checkElementIndex(index, entries.size());
+        return Optional.ofNullable(entries.get(index).title());
+    }
+
+    /**
+     * Reads and parses a level of the pack.
+     *
+     * @param index the index of the level, from 0
+     * @return the parsed level, which can be played with {@link Controller#Controller(LevelTemplate)}
+     * @throws IllegalArgumentException if the level does not have exactly one worker
+     */
+    public LevelTemplate level(int index) {
+        checkElementIndex(index, entries.size());
+        Entry entry = entries.get(index);
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, entry.offset() + buffer.position()) < 0) {
+                    throw new IllegalStateException("Level %d is past the end of %s, which changed since it was opened"
+                        .formatted(index, file));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        String text = new String(buffer.array(), StandardCharsets.UTF_8);
+        return toTemplate(text.lines().map(String::stripTrailing).toList());
+    }
+
+    /**
+     * Converts a level in XSB notation to the tile codes of the level files. Lines are padded to the same
+     * length, and the level to the smallest size a {@link LevelTemplate} accepts; floor the worker cannot
+     * reach, i.e. outside the walls, becomes {@link TileType#OUTSIDE}.
+     */
+    static LevelTemplate toTemplate(List<String> xsb) {
+        int lines = Math.max(xsb.size(), LevelTemplate.MIN_LINES);
+        int columns = Math.max(xsb.stream().mapToInt(String::length).max().orElse(0), LevelTemplate.MIN_COLUMNS);
+        char[][] grid = new char[lines][columns];
+        for (char[] row : grid) {
+            Arrays.fill(row, TileType.OUTSIDE.getCode());
+        }
+
+        int workerLine = -1;
+        int workerColumn = -1;
+        int workers = 0;
+        for (int l = 0; l < xsb.size(); l++) {
+            String line = xsb.get(l);
+            for (int c = 0; c < line.length(); c++) {
+                TileType type = switch (line.charAt(c)) {
+                    case '#' -> TileType.WALL;
+                    case '@' -> TileType.WORKER_ON_FLOOR;
+                    case '+' -> TileType.WORKER_IN_STORAGE_AREA;
+                    case '$' -> TileType.UNSTORED_BOX;
+                    case '*' -> TileType.STORED_BOX;
+                    case '.' -> TileType.STORAGE_AREA;
+                    case ' ', '-', '_' -> TileType.FLOOR;
+                    default -> throw new IllegalArgumentException("Invalid XSB character: " + line.charAt(c));
+                };
+                grid[l][c] = type.getCode();
+                if (type == TileType.WORKER_ON_FLOOR || type == TileType.WORKER_IN_STORAGE_AREA) {
+                    workerLine = l;
+                    workerColumn = c;
+                    workers++;
+                }
+            }
+        }
+        if (workers != 1) {
+            throw new IllegalArgumentException("A level needs one worker, found " + workers);
+        }
+
+        boolean[][] inside = new boolean[lines][columns];
+        markInside(grid, inside, workerLine, workerColumn);
+        List<String> level = new ArrayList<>(lines);
+        for (int l = 0; l < lines; l++) {
+            for (int c = 0; c < columns; c++) {
+                if (grid[l][c] == TileType.FLOOR.getCode() && !inside[l][c]) {
+                    grid[l][c] = TileType.OUTSIDE.getCode();
+                }
+            }
+            level.add(new String(grid[l]));
+        }
+        return LevelTemplate.parse(level);
+    }
+
+    /**
+     * Marks the squares the worker could walk to if no box were in the way.
+     */
+    private static void markInside(char[][] grid, boolean[][] inside, int line, int column) {
+        int[] stack = new int[grid.length * grid[0].length];
+        int size = 0;
+        stack[size++] = line * grid[0].length + column;
+        inside[line][column] = true;
+        while (size > 0) {
+            int square = stack[--size];
+            int l = square / grid[0].length;
+            int c = square % grid[0].length;
+            for (Direction direction : Direction.values()) {
+                int nextLine = l + direction.getLineDelta();
+                int nextColumn = c + direction.getColumnDelta();
+                if (nextLine >= 0 && nextLine < grid.length && nextColumn >= 0 && nextColumn < grid[0].length
+                    && !inside[nextLine][nextColumn]
+                    && grid[nextLine][nextColumn] != TileType.WALL.getCode()
+                    && grid[nextLine][nextColumn] != TileType.OUTSIDE.getCode()) {
+                    inside[nextLine][nextColumn] = true;
+                    stack[size++] = nextLine * grid[0].length + nextColumn;
+                }
+            }
+        }
+    }
+}
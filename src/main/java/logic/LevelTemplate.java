@@ -0,0 +1,216 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * The parsed initial state of a level.
+ * <p>
+ * A template is immutable and is parsed once; every {@link Warehouse} created from it starts with a
+ * single copy of its tile array, so restarting a level never touches the filesystem.
+ */
+@NullMarked
+public final class LevelTemplate {
+
+    static final int MIN_LINES = 7;
+    static final int MIN_COLUMNS = 5;
+
+    private final int lines;
+    private final int columns;
+    private final int width;
+    private final int[] offsets = new int[Direction.values().length];
+
+    private final byte[] tiles;
+    private final Zobrist zobrist;
+    private final long zobristHash;
+    private final int unstoredBoxes;
+    private final int workerLine;
+    private final int workerColumn;
+    private final BitSet deadSquares;
+
+    /**
+     * Reads and parses a level file.
+     *
+     * @param pathToLevel The path of the level file, e.g. "levels/level2.txt"
+     * @return the parsed level
+     */
+    public static LevelTemplate read(String pathToLevel) {
+        Path file = Paths.get(pathToLevel);
+        List<String> linesFromFile;
+        try {
+            linesFromFile = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return new LevelTemplate(linesFromFile);
+    }
+
+    /**
+     * Parses a level given line by line, in the format of the level files.
+     *
+     * @param lines the lines of the level, all of the same length
+     * @return the parsed level
+     */
+    public static LevelTemplate parse(List<String> lines) {
+        return new LevelTemplate(lines);
+    }
+
+    private LevelTemplate(List<String> linesFromFile) {
+        this.lines = linesFromFile.size();
+        checkState(this.lines >= MIN_LINES);
+
+        this.columns = linesFromFile.getFirst().length();
+        checkState(this.columns >= MIN_COLUMNS);
+
+        this.width = this.columns + 2;
+        for (Direction direction : Direction.values()) {
+            offsets[direction.index()] = direction.getLineDelta() * this.width + direction.getColumnDelta();
+        }
+
+        this.tiles = new byte[(this.lines + 2) * this.width];
+        Arrays.fill(this.tiles, TileType.OUTSIDE.index());
+        Worker worker = new Worker();
+        parseLevel(worker, linesFromFile);
+        this.workerLine = worker.getLine();
+        this.workerColumn = worker.getColumn();
+
+        this.zobrist = new Zobrist(this.tiles.length);
+        long hash = 0L;
+        int unstored = 0;
+        for (int i = 0; i < this.tiles.length; i++) {
+            TileType type = TileType.ofIndex(this.tiles[i]);
+            hash ^= zobrist.keyOf(type, i);
+            if (type == TileType.UNSTORED_BOX) {
+                unstored++;
+            }
+        }
+        this.zobristHash = hash;
+        this.unstoredBoxes = unstored;
+        this.deadSquares = findDeadSquares();
+    }
+
+    /**
+     * Finds the floor squares from which a box can never be pushed to a storage area, whatever the other
+     * boxes do: the squares a box cannot be pulled to from any storage area over the empty board.
+     */
+    private BitSet findDeadSquares() {
+        boolean[] live = new boolean[tiles.length];
+        int[] queue = new int[tiles.length];
+        int tail = 0;
+        for (int square = 0; square < tiles.length; square++) {
+            if (isStorage(TileType.ofIndex(tiles[square]))) {
+                live[square] = true;
+                queue[tail++] = square;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int square = queue[head];
+            for (int offset : offsets) {
+                // A box pulled from 'square' to 'from' leaves the worker on 'behind'
+                int from = square - offset;
+                int behind = from - offset;
+                if (!live[from] && !isWall(from) && !isWall(behind)) {
+                    live[from] = true;
+                    queue[tail++] = from;
+                }
+            }
+        }
+
+        BitSet dead = new BitSet(tiles.length);
+        for (int square = 0; square < tiles.length; square++) {
+            if (!live[square] && !isWall(square)) {
+                dead.set(square);
+            }
+        }
+        return dead;
+    }
+
+    private boolean isWall(int square) {
+        TileType type = TileType.ofIndex(tiles[square]);
+        return type == TileType.WALL || type == TileType.OUTSIDE;
+    }
+
+    private static boolean isStorage(TileType type) {
+        return type == TileType.STORAGE_AREA || type == TileType.STORED_BOX || type == TileType.WORKER_IN_STORAGE_AREA;
+    }
+
+    private void parseLevel(Worker worker, List<String> linesFromFile) {
+        IntStream.range(0, this.lines)
+            .forEach(i -> IntStream.range(0, this.columns)
+                .forEach(j -> {
+                    char cellChar = linesFromFile.get(i).charAt(j);
+
+                    TileType.fromCode(cellChar).ifPresentOrElse(
+                        type -> {
+                            tiles[(i + 1) * this.width + j + 1] = type.index();
+                            if (type == TileType.WORKER_ON_FLOOR || type == TileType.WORKER_IN_STORAGE_AREA) {
+                                worker.moveTo(i, j);
+                            }
+                        },
+                        () -> { throw new RuntimeException("Invalid tile type: " + cellChar); }
+                    );
+                })
+            );
+    }
+
+    public int getLines() {
+        return lines;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns a fresh copy of the padded tile array.
+     */
+    byte[] copyTiles() {
+        return tiles.clone();
+    }
+
+    Zobrist getZobrist() {
+        return zobrist;
+    }
+
+    long getZobristHash() {
+        return zobristHash;
+    }
+
+    int getUnstoredBoxes() {
+        return unstoredBoxes;
+    }
+
+    int getWorkerLine() {
+        return workerLine;
+    }
+
+    int getWorkerColumn() {
+        return workerColumn;
+    }
+
+    /**
+     * Returns the padded indices of the dead squares, which must not be modified.
+     */
+    BitSet getDeadSquares() {
+        return deadSquares;
+    }
+}
@@ -0,0 +1,79 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Arrays;
+
+/**
+ * The moves made in a level, one byte each, so that they can be undone and redone in constant time.
+ * <p>
+ * A move is stored as the index of its direction, with {@link #PUSH} set when it pushed a box.
+ * The worker's previous square and the pushed box are both one step away along that direction,
+ * so they do not need to be stored.
+ */
+@NullMarked
+final class MoveHistory {
+    private static final int PUSH = 0x4;
+    private static final int DIRECTION_MASK = 0x3;
+
+    private byte[] moves = new byte[64];
+    private int size;
+    private int limit;
+
+    /**
+     * Records a new move, which discards the moves that could have been redone.
+     */
+    void record(Direction direction, boolean push) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = (byte) (direction.index() | (push ? PUSH : 0));
+        limit = size;
+    }
+
+    boolean canUndo() {
+        return size > 0;
+    }
+
+    boolean canRedo() {
+        return size < limit;
+    }
+
+    /**
+     * Takes back the last move made, which is now available to {@link #redo()}.
+     *
+     * @return the move taken back
+     */
+    int undo() {
+        return moves[--size];
+    }
+
+    /**
+     * Makes again the last move undone.
+     *
+     * @return the move made again
+     */
+    int redo() {
+        return moves[size++];
+    }
+
+    /**
+     * Returns the number of moves made, not counting those undone.
+     */
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+        limit = 0;
+    }
+
+    static Direction directionOf(int move) {
+        return Direction.ofIndex(move & DIRECTION_MASK);
+    }
+
+    static boolean isPush(int move) {
+        return (move & PUSH) != 0;
+    }
+}
@@ -0,0 +1,100 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayDeque;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Breadth-first search of the push graph like {@link BreadthFirstSolver}, with its visited set and queue
+ * held off the Java heap in an {@link OffHeapStateTable}, so that its size is bounded by the memory given
+ * to the table rather than by the heap and the garbage collector.
+ * <p>
+ * The search stops with {@link SolverResult.Status#STATE_LIMIT_REACHED} when the table is full or holds
+ * {@link SearchLimits#maxStates()} states, whichever comes first.
+ */
+@NullMarked
+public final class OffHeapBreadthFirstSolver implements Solver {
+    private static final int MAX_SQUARES = 1 << Short.SIZE;
+
+    private final long tableBytes;
+
+    /**
+     * @param tableBytes the off-heap memory of the state table, e.g. {@code 8L << 30} for 8 GiB
+     */
+    public OffHeapBreadthFirstSolver(long tableBytes) {
+        checkArgument(tableBytes > 0, "Invalid table size: %s", tableBytes);
+        this.tableBytes = tableBytes;
+    }
+
+    /**
+     * Creates a solver whose state table takes the given number of gibibytes.
+     *
+     * @param gigabytes the off-heap memory of the state table, in GiB
+     */
+    public static OffHeapBreadthFirstSolver withGigabytes(int gigabytes) {
+        return new OffHeapBreadthFirstSolver((long) gigabytes << 30);
+    }
+
+    @Override
+    public SolverResult solve(Warehouse warehouse, SearchLimits limits) {
+        long deadline = limits.deadline();
+        PushBoard board = PushBoard.of(warehouse);
+        checkArgument(board.squares() <= MAX_SQUARES, "Level too large for packed states: %s squares", board.squares());
+        Reachability reachability = new Reachability(board);
+        Reachability childReachability = new Reachability(board);
+
+        State start = board.start();
+        if (board.isSolved(start.boxes())) {
+            return SolverResult.solved(board, new int[0], 1);
+        }
+
+        try (OffHeapStateTable table = new OffHeapStateTable(start.boxes().length, tableBytes)) {
+            table.insert(start.boxes(), start.worker(), -1, 0);
+            int[] boxes = new int[start.boxes().length];
+            for (long head = 0; head < table.size(); head++) {
+                if (SearchLimits.isPast(deadline)) {
+                    return SolverResult.failed(SolverResult.Status.TIME_LIMIT_REACHED, table.size());
+                }
+                long slot = table.slotAt(head);
+                int worker = table.read(slot, boxes);
+                State state = new State(boxes.clone(), worker);
+                reachability.fill(worker, boxes);
+
+                for (int i = 0; i < boxes.length; i++) {
+                    for (int direction = 0; direction < 4; direction++) {
+                        if (!reachability.canPush(boxes[i], direction)) {
+                            continue;
+                        }
+                        State child = board.push(state, i, direction, childReachability);
+                        long childSlot = table.insert(child.boxes(), child.worker(), slot,
+                            PushBoard.packPush(boxes[i], direction));
+                        if (childSlot == OffHeapStateTable.KNOWN) {
+                            continue;
+                        }
+                        if (childSlot == OffHeapStateTable.FULL) {
+                            return SolverResult.failed(SolverResult.Status.STATE_LIMIT_REACHED, table.size());
+                        }
+                        // A child stored by the last free slot may still solve the level
+                        if (board.isSolved(child.boxes())) {
+                            return SolverResult.solved(board, pushesTo(childSlot, table), table.size());
+                        }
+                        if (table.size() >= limits.maxStates()) {
+                            return SolverResult.failed(SolverResult.Status.STATE_LIMIT_REACHED, table.size());
+                        }
+                    }
+                }
+            }
+            return SolverResult.failed(SolverResult.Status.UNSOLVABLE, table.size());
+        }
+    }
+
+    private static int[] pushesTo(long slot, OffHeapStateTable table) {
+        ArrayDeque<Integer> pushes = new ArrayDeque<>();
+        for (long at = slot; table.parentOf(at) >= 0; at = table.parentOf(at)) {
+            pushes.addFirst(table.pushOf(at));
+        }
+        return pushes.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,181 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A set of search states stored outside the Java heap, in memory allocated from an {@link Arena}, so that
+ * it can hold hundreds of millions of states without any garbage collection cost.
+ * <p>
+ * A state is packed into fixed-width entries: 16 bits for the worker square and for each box square,
+ * followed by a long holding the slot of the parent state and the push made from it. Entries are found
+ * by open addressing with linear probing; an all-zero key marks a free slot, which no state packs to
+ * since the worker is never on square 0. The slots are also recorded in insertion order, which is the
+ * queue of a breadth-first search.
+ * <p>
+ * The table never grows: it reports itself full past three quarters of its slots. It must be closed to
+ * free its memory, and it must not be shared between threads.
+ */
+@NullMarked
+final class OffHeapStateTable implements AutoCloseable {
+    /**
+     * Returned by {@link #insert} for a state that is already in the table.
+     */
+    static final long KNOWN = -1;
+    /**
+     * Returned by {@link #insert} when there is no room left for a new state.
+     */
+    static final long FULL = -2;
+
+    private static final int SQUARES_PER_LONG = 4;
+    private static final int PUSH_BITS = 24;
+    private static final long PUSH_MASK = (1L << PUSH_BITS) - 1;
+
+    private final Arena arena = Arena.ofConfined();
+    private final MemorySegment entries;
+    private final MemorySegment order;
+    private final int boxCount;
+    private final int keyLongs;
+    private final int entryBytes;
+    private final long mask;
+    private final long maxSize;
+    private final long[] key;
+    private long size;
+
+    /**
+     * @param boxCount      the number of boxes of every state
+     * @param capacityBytes the off-heap memory the table may use
+     */
+    OffHeapStateTable(int boxCount, long capacityBytes) {
+        this.boxCount = boxCount;
+        this.keyLongs = (boxCount + 1 + SQUARES_PER_LONG - 1) / SQUARES_PER_LONG;
+        this.entryBytes = (keyLongs + 1) * Long.BYTES;
+        this.key = new long[keyLongs];
+
+        // Each slot takes an entry, and each state that can be stored a long in the insertion order too
+        long slots = Long.highestOneBit(capacityBytes / (entryBytes + Long.BYTES));
+        checkArgument(slots >= 4, "Capacity too small for a state table: %s bytes", capacityBytes);
+        this.mask = slots - 1;
+        this.maxSize = slots / 4 * 3;
+        this.entries = arena.allocate(slots * entryBytes, Long.BYTES);
+        this.order = arena.allocate(maxSize * Long.BYTES, Long.BYTES);
+    }
+
+    /**
+     * Adds a state unless it is already in the table.
+     *
+     * @param boxes  the sorted box squares of the state
+     * @param worker the canonical worker square of the state
+     * @param parent the slot of the parent state, or -1 for the start
+     * @param push   the push from the parent, as packed by {@link PushBoard#packPush(int, int)}
+     * @return the slot of the new state, {@link #KNOWN} or {@link #FULL}
+     */
+    long insert(int[] boxes, int worker, long parent, int push) {
+        pack(boxes, worker);
+        long slot = hash() & mask;
+        while (true) {
+            long offset = slot * entryBytes;
+            if (entries.get(ValueLayout.JAVA_LONG, offset) == 0) {
+                break;
+            }
+            if (keyMatches(offset)) {
+                return KNOWN;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == maxSize) {
+            return FULL;
+        }
+
+        long offset = slot * entryBytes;
+        for (int i = 0; i < keyLongs; i++) {
+            entries.set(ValueLayout.JAVA_LONG, offset + (long) i * Long.BYTES, key[i]);
+        }
+        entries.set(ValueLayout.JAVA_LONG, offset + (long) keyLongs * Long.BYTES,
+            (parent + 1) << PUSH_BITS | (push & PUSH_MASK));
+        order.setAtIndex(ValueLayout.JAVA_LONG, size++, slot);
+        return slot;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Returns the slot of the state inserted in the given position, counting from 0.
+     */
+    long slotAt(long index) {
+        return order.getAtIndex(ValueLayout.JAVA_LONG, index);
+    }
+
+    /**
+     * Reads the boxes of the state in a slot into the given array.
+     *
+     * @return the worker square of the state
+     */
+    int read(long slot, int[] boxes) {
+        long offset = slot * entryBytes;
+        for (int i = 0; i < boxCount; i++) {
+            boxes[i] = squareAt(offset, i + 1);
+        }
+        return squareAt(offset, 0);
+    }
+
+    /**
+     * Returns the slot of the parent of the state in a slot, or -1 for the start.
+     */
+    long parentOf(long slot) {
+        return (metadataOf(slot) >>> PUSH_BITS) - 1;
+    }
+
+    int pushOf(long slot) {
+        return (int) (metadataOf(slot) & PUSH_MASK);
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long metadataOf(long slot) {
+        return entries.get(ValueLayout.JAVA_LONG, slot * entryBytes + (long) keyLongs * Long.BYTES);
+    }
+
+    private int squareAt(long offset, int index) {
+        long packed = entries.get(ValueLayout.JAVA_LONG, offset + (long) (index / SQUARES_PER_LONG) * Long.BYTES);
+        return (int) (packed >>> (index % SQUARES_PER_LONG * Short.SIZE)) & 0xFFFF;
+    }
+
+    private void pack(int[] boxes, int worker) {
+        Arrays.fill(key, 0L);
+        key[0] = worker;
+        for (int i = 0; i < boxCount; i++) {
+            int index = i + 1;
+            key[index / SQUARES_PER_LONG] |= (long) boxes[i] << (index % SQUARES_PER_LONG * Short.SIZE);
+        }
+    }
+
+    private boolean keyMatches(long offset) {
+        for (int i = 0; i < keyLongs; i++) {
+            if (entries.get(ValueLayout.JAVA_LONG, offset + (long) i * Long.BYTES) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long hash() {
+        long hash = 0;
+        for (long packed : key) {
+            hash = (hash ^ packed) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return hash ^ hash >>> 32;
+    }
+}
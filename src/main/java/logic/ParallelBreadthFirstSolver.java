@@ -0,0 +1,188 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Breadth-first search of the push graph on all cores, which finds a solution with the fewest pushes.
+ * <p>
+ * The search goes one layer of pushes at a time. Each layer is split into {@link ForkJoinPool} tasks,
+ * which idle threads steal from each other, and the states they generate are deduplicated in a
+ * shared concurrent visited set. As layers are expanded in turn, the number of pushes of the solution
+ * does not depend on the number of threads, although which of the shortest solutions is returned may.
+ */
+@NullMarked
+public final class ParallelBreadthFirstSolver implements Solver {
+    private static final int STATES_PER_TASK = 64;
+
+    private final int parallelism;
+
+    /**
+     * Creates a solver using one thread per available core.
+     */
+    public ParallelBreadthFirstSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism the number of threads of the search
+     */
+    public ParallelBreadthFirstSolver(int parallelism) {
+        checkArgument(parallelism > 0, "Invalid parallelism: %s", parallelism);
+        this.parallelism = parallelism;
+    }
+
+    private record Node(@Nullable State parent, int push) {}
+
+    private record Scratch(Reachability reachability, Reachability childReachability) {}
+
+    @Override
+    public SolverResult solve(Warehouse warehouse, SearchLimits limits) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new Search(PushBoard.of(warehouse), limits).run(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The state of one run, shared by the tasks expanding its layers.
+     */
+    private static final class Search {
+        private final PushBoard board;
+        private final SearchLimits limits;
+        private final long deadline;
+        private final Map<State, Node> visited = new ConcurrentHashMap<>();
+        private final AtomicLong stored = new AtomicLong();
+        private final AtomicReference<@Nullable State> solution = new AtomicReference<>();
+        private volatile SolverResult.@Nullable Status stop;
+        // Each thread of the pool reuses its own scratch from task to task, as it is as large as the board
+        private final ThreadLocal<Scratch> scratch;
+
+        Search(PushBoard board, SearchLimits limits) {
+            this.board = board;
+            this.limits = limits;
+            this.deadline = limits.deadline();
+            this.scratch = ThreadLocal.withInitial(() -> new Scratch(new Reachability(board), new Reachability(board)));
+        }
+
+        SolverResult run(ForkJoinPool pool) {
+            try {
+                return search(pool);
+            } finally {
+                scratch.remove(); // in case the calling thread helped with the tasks
+            }
+        }
+
+        private SolverResult search(ForkJoinPool pool) {
+            State start = board.start();
+            if (board.isSolved(start.boxes())) {
+                return SolverResult.solved(board, new int[0], 1);
+            }
+            visited.put(start, new Node(null, -1));
+            stored.set(1);
+
+            List<State> layer = List.of(start);
+            while (!layer.isEmpty()) {
+                layer = pool.invoke(new Expansion(layer, 0, layer.size()));
+                State solved = solution.get();
+                if (solved != null) {
+                    return SolverResult.solved(board, pushesTo(solved), stored.get());
+                }
+                SolverResult.Status status = stop;
+                if (status != null) {
+                    return SolverResult.failed(status, stored.get());
+                }
+            }
+            return SolverResult.failed(SolverResult.Status.UNSOLVABLE, stored.get());
+        }
+
+        /**
+         * Generates the children of a slice of the layer, splitting it while it is large.
+         * States are named with their package, as {@link RecursiveTask} inherits a nested type named State.
+         * Tasks are never serialized.
+         */
+        @SuppressWarnings("serial")
+        private final class Expansion extends RecursiveTask<List<logic.State>> {
+            private final List<logic.State> layer;
+            private final int from;
+            private final int to;
+
+            Expansion(List<logic.State> layer, int from, int to) {
+                this.layer = layer;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected List<logic.State> compute() {
+                if (to - from > STATES_PER_TASK) {
+                    int middle = (from + to) >>> 1;
+                    Expansion right = new Expansion(layer, middle, to);
+                    right.fork();
+                    List<logic.State> children = new Expansion(layer, from, middle).compute();
+                    children.addAll(right.join());
+                    return children;
+                }
+                return expand();
+            }
+
+            private List<logic.State> expand() {
+                Reachability reachability = scratch.get().reachability();
+                Reachability childReachability = scratch.get().childReachability();
+                List<logic.State> children = new ArrayList<>();
+                for (int s = from; s < to && stop == null && solution.get() == null; s++) {
+                    if (SearchLimits.isPast(deadline)) {
+                        stop = SolverResult.Status.TIME_LIMIT_REACHED;
+                        break;
+                    }
+                    logic.State state = layer.get(s);
+                    int[] boxes = state.boxes();
+                    reachability.fill(state.worker(), boxes);
+                    for (int i = 0; i < boxes.length; i++) {
+                        for (int direction = 0; direction < 4; direction++) {
+                            if (!reachability.canPush(boxes[i], direction)) {
+                                continue;
+                            }
+                            logic.State child = board.push(state, i, direction, childReachability);
+                            if (visited.putIfAbsent(child, new Node(state, PushBoard.packPush(boxes[i], direction))) != null) {
+                                continue;
+                            }
+                            if (board.isSolved(child.boxes())) {
+                                solution.compareAndSet(null, child);
+                            }
+                            if (stored.incrementAndGet() >= limits.maxStates()) {
+                                stop = SolverResult.Status.STATE_LIMIT_REACHED;
+                            }
+                            children.add(child);
+                        }
+                    }
+                }
+                return children;
+            }
+        }
+
+        private int[] pushesTo(State state) {
+            ArrayDeque<Integer> pushes = new ArrayDeque<>();
+            Node node = visited.get(state);
+            while (node != null && node.parent() != null) {
+                pushes.addFirst(node.push());
+                node = visited.get(node.parent());
+            }
+            return pushes.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package logic;
+
+/**
+ * A push of the box standing at the given line and column, one step in the given direction.
+ */
+public record Push(int line, int column, Direction direction) {
+}
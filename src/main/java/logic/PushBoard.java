@@ -0,0 +1,271 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The fixed part of a level as seen by the solvers: walls, storage areas and the neighbour offsets.
+ * <p>
+ * Squares are numbered like the tiles of the {@link Warehouse} the board is made from, padded border
+ * included, so that a square always has four neighbours. Outside tiles count as walls.
+ * A board is immutable and can be shared between threads.
+ */
+@NullMarked
+final class PushBoard {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int width;
+    private final int squares;
+    private final int[] offsets;
+    private final boolean[] walls;
+    private final boolean[] goals;
+    private final boolean[] dead;
+    private final int[] goalSquares;
+    private final int[] startBoxes;
+    private final int startWorker;
+    private final int startCanonicalWorker;
+
+    private PushBoard(Warehouse warehouse) {
+        this.width = warehouse.getWidth();
+        this.squares = warehouse.getSquareCount();
+        this.offsets = warehouse.getOffsets();
+        this.walls = new boolean[squares];
+        this.goals = new boolean[squares];
+        this.dead = new boolean[squares];
+
+        List<Integer> boxes = new ArrayList<>();
+        int worker = -1;
+        for (int square = 0; square < squares; square++) {
+            TileType type = warehouse.tileAt(square);
+            walls[square] = type == TileType.WALL || type == TileType.OUTSIDE;
+            dead[square] = warehouse.isDeadSquare(square);
+            goals[square] = type == TileType.STORAGE_AREA
+                || type == TileType.STORED_BOX
+                || type == TileType.WORKER_IN_STORAGE_AREA;
+            if (type == TileType.UNSTORED_BOX || type == TileType.STORED_BOX) {
+                boxes.add(square);
+            }
+            if (type == TileType.WORKER_ON_FLOOR || type == TileType.WORKER_IN_STORAGE_AREA) {
+                worker = square;
+            }
+        }
+        this.goalSquares = squaresOf(goals);
+        this.startBoxes = boxes.stream().mapToInt(Integer::intValue).toArray();
+        this.startWorker = worker;
+        this.startCanonicalWorker = warehouse.getCanonicalWorkerSquare();
+    }
+
+    /**
+     * Creates the board of the current state of a warehouse.
+     */
+    static PushBoard of(Warehouse warehouse) {
+        return new PushBoard(warehouse);
+    }
+
+    /**
+     * Returns the starting state, with the worker on the canonical square of its region as normalized
+     * by the warehouse, so that a start state stands for the same positions as
+     * {@link Warehouse#getNormalizedHash()}.
+     */
+    State start() {
+        return new State(startBoxes, startCanonicalWorker);
+    }
+
+    int squares() {
+        return squares;
+    }
+
+    int offset(int direction) {
+        return offsets[direction];
+    }
+
+    boolean isWall(int square) {
+        return walls[square];
+    }
+
+    /**
+     * Tells whether a box on the square can never reach a storage area.
+     */
+    boolean isDead(int square) {
+        return dead[square];
+    }
+
+    boolean isGoal(int square) {
+        return goals[square];
+    }
+
+    int[] goalSquares() {
+        return goalSquares;
+    }
+
+    boolean isSolved(int[] boxes) {
+        for (int box : boxes) {
+            if (!goals[box]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the state reached by pushing a box, given that the worker can reach the square behind it
+     * and the square in front of it is free.
+     *
+     * @param state        the state before the push
+     * @param boxIndex     the index of the pushed box in the state's boxes
+     * @param direction    the index of the push direction
+     * @param reachability scratch used to normalize the new state, other than the one filled for {@code state}
+     */
+    State push(State state, int boxIndex, int direction, Reachability reachability) {
+        int from = state.boxes()[boxIndex];
+        int[] boxes = State.move(state.boxes(), boxIndex, from + offsets[direction]);
+        return new State(boxes, reachability.fill(from, boxes));
+    }
+
+    /**
+     * Returns the state reached by pulling a box, which is a push played backwards, given that
+     * {@link Reachability#canPull(int, int)} holds for it.
+     *
+     * @param state        the state before the pull
+     * @param boxIndex     the index of the pulled box in the state's boxes
+     * @param direction    the index of the direction the box moves in
+     * @param reachability scratch used to normalize the new state, other than the one filled for {@code state}
+     */
+    State pull(State state, int boxIndex, int direction, Reachability reachability) {
+        int to = state.boxes()[boxIndex] + offsets[direction];
+        int[] boxes = State.move(state.boxes(), boxIndex, to);
+        return new State(boxes, reachability.fill(to + offsets[direction], boxes));
+    }
+
+    /**
+     * Returns the push that a pull undoes, as packed by {@link #packPush(int, int)}.
+     *
+     * @param box       the square of the box before the pull
+     * @param direction the index of the direction the box is pulled in
+     */
+    int pushUndoneBy(int box, int direction) {
+        return packPush(box + offsets[direction], Direction.ofIndex(direction).reverse().index());
+    }
+
+    /**
+     * Returns the solved states a backward search starts from: the boxes on all the storage areas and
+     * the worker in each of the regions left free by them.
+     */
+    List<State> goalStates(Reachability reachability) {
+        boolean[] covered = new boolean[squares];
+        List<State> states = new ArrayList<>();
+        for (int square = 0; square < squares; square++) {
+            if (walls[square] || goals[square] || covered[square]) {
+                continue;
+            }
+            states.add(new State(goalSquares, reachability.fill(square, goalSquares)));
+            for (int reached = 0; reached < squares; reached++) {
+                covered[reached] |= reachability.isReached(reached);
+            }
+        }
+        return states;
+    }
+
+    int boxCount() {
+        return startBoxes.length;
+    }
+
+    /**
+     * Turns a sequence of pushes into worker moves, walking the worker to each box along a shortest path.
+     *
+     * @param pushes pushes as packed by {@link #packPush(int, int)}
+     */
+    List<Direction> toMoves(int[] pushes) {
+        int worker = startWorker;
+        boolean[] occupied = new boolean[squares];
+        for (int box : startBoxes) {
+            occupied[box] = true;
+        }
+
+        List<Direction> moves = new ArrayList<>();
+        for (int push : pushes) {
+            int box = pushedBox(push);
+            int direction = pushDirection(push);
+            int behind = box - offsets[direction];
+            moves.addAll(walk(worker, behind, occupied));
+            moves.add(Direction.ofIndex(direction));
+
+            occupied[box] = false;
+            occupied[box + offsets[direction]] = true;
+            worker = box;
+        }
+        return moves;
+    }
+
+    private List<Direction> walk(int from, int to, boolean[] occupied) {
+        int[] previous = new int[squares];
+        Arrays.fill(previous, -1);
+        int[] queue = new int[squares];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        previous[from] = from;
+        while (head < tail && previous[to] < 0) {
+            int square = queue[head++];
+            for (int offset : offsets) {
+                int next = square + offset;
+                if (previous[next] < 0 && !walls[next] && !occupied[next]) {
+                    previous[next] = square;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        if (previous[to] < 0) {
+            throw new IllegalStateException("Square %d is not reachable from %d".formatted(to, from));
+        }
+
+        List<Direction> path = new ArrayList<>();
+        for (int square = to; square != from; square = previous[square]) {
+            path.add(directionBetween(previous[square], square));
+        }
+        return path.reversed();
+    }
+
+    private Direction directionBetween(int from, int to) {
+        for (Direction direction : DIRECTIONS) {
+            if (from + offsets[direction.index()] == to) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("Squares %d and %d are not adjacent".formatted(from, to));
+    }
+
+    /**
+     * Converts a packed push to its public form, with the line and column of the box before the push.
+     */
+    Push toPush(int push) {
+        int box = pushedBox(push);
+        return new Push(box / width - 1, box % width - 1, Direction.ofIndex(pushDirection(push)));
+    }
+
+    static int packPush(int box, int direction) {
+        return box << 2 | direction;
+    }
+
+    static int pushedBox(int push) {
+        return push >>> 2;
+    }
+
+    static int pushDirection(int push) {
+        return push & 0x3;
+    }
+
+    private static int[] squaresOf(boolean[] flags) {
+        int[] result = new int[flags.length];
+        int count = 0;
+        for (int square = 0; square < flags.length; square++) {
+            if (flags[square]) {
+                result[count++] = square;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,62 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Arrays;
+
+/**
+ * For every storage area, the number of pushes needed to bring a box there from each square, ignoring
+ * the other boxes but not the room the worker needs to stand behind the box.
+ * <p>
+ * Distances are found by pulling a box back from each storage area over the empty board, once per level.
+ */
+@NullMarked
+final class PushDistances {
+    static final int UNREACHABLE = 1 << 20;
+
+    private final int[][] distances;
+
+    private PushDistances(PushBoard board) {
+        int[] goals = board.goalSquares();
+        this.distances = new int[goals.length][];
+        int[] queue = new int[board.squares()];
+        for (int g = 0; g < goals.length; g++) {
+            int[] distance = new int[board.squares()];
+            Arrays.fill(distance, UNREACHABLE);
+            distance[goals[g]] = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = goals[g];
+            while (head < tail) {
+                int square = queue[head++];
+                for (int direction = 0; direction < 4; direction++) {
+                    int offset = board.offset(direction);
+                    // a box pushed from 'from' to 'square' needs the worker on 'behind'
+                    int from = square - offset;
+                    int behind = from - offset;
+                    if (distance[from] == UNREACHABLE && !board.isWall(from) && !board.isWall(behind)) {
+                        distance[from] = distance[square] + 1;
+                        queue[tail++] = from;
+                    }
+                }
+            }
+            distances[g] = distance;
+        }
+    }
+
+    static PushDistances of(PushBoard board) {
+        return new PushDistances(board);
+    }
+
+    /**
+     * Returns the pushes needed to bring a box from the square to the storage area with the given index,
+     * or {@link #UNREACHABLE}.
+     */
+    int distance(int goalIndex, int square) {
+        return distances[goalIndex][square];
+    }
+
+    int goals() {
+        return distances.length;
+    }
+}
@@ -0,0 +1,129 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Flood fill of the squares the worker can walk to, with boxes as obstacles.
+ * <p>
+ * The marks of a fill are stamped with a generation number instead of being cleared, so each fill
+ * only costs the size of the region it explores. An instance holds scratch buffers and must not be
+ * shared between threads.
+ */
+@NullMarked
+final class Reachability implements FreezeDetector.Board {
+    private final PushBoard board;
+    private final int[] reached;
+    private final int[] boxes;
+    private final int[] stack;
+    private final FreezeDetector freezeDetector;
+    private int stamp;
+    // The push being checked for a freeze deadlock, whose box is seen on 'movedTo' instead of 'movedFrom'
+    private int movedFrom = -1;
+    private int movedTo = -1;
+
+    Reachability(PushBoard board) {
+        this.board = board;
+        this.reached = new int[board.squares()];
+        this.boxes = new int[board.squares()];
+        this.stack = new int[board.squares()];
+        int[] offsets = new int[4];
+        for (int direction = 0; direction < 4; direction++) {
+            offsets[direction] = board.offset(direction);
+        }
+        this.freezeDetector = new FreezeDetector(board.squares(), offsets);
+    }
+
+    /**
+     * Fills the region of the worker, replacing the previous fill.
+     *
+     * @return the canonical square of the region, which is its top-left square
+     */
+    int fill(int worker, int[] boxSquares) {
+        stamp++;
+        for (int box : boxSquares) {
+            boxes[box] = stamp;
+        }
+
+        int canonical = worker;
+        int size = 0;
+        stack[size++] = worker;
+        reached[worker] = stamp;
+        while (size > 0) {
+            int square = stack[--size];
+            canonical = Math.min(canonical, square);
+            for (int direction = 0; direction < 4; direction++) {
+                int next = square + board.offset(direction);
+                if (reached[next] != stamp && boxes[next] != stamp && !board.isWall(next)) {
+                    reached[next] = stamp;
+                    stack[size++] = next;
+                }
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Tells whether the last fill reached the given square.
+     */
+    boolean isReached(int square) {
+        return reached[square] == stamp;
+    }
+
+    /**
+     * Tells whether there is a box on the given square in the last fill.
+     */
+    boolean hasBox(int square) {
+        return boxes[square] == stamp;
+    }
+
+    /**
+     * Tells whether, in the last fill, the worker can push the given box one step in the given direction
+     * onto a square that is not dead, without freezing boxes outside storage areas.
+     */
+    boolean canPush(int box, int direction) {
+        int offset = board.offset(direction);
+        int target = box + offset;
+        return isReached(box - offset) && !board.isWall(target) && !hasBox(target) && !board.isDead(target)
+            && !isFreezeDeadlock(box, target);
+    }
+
+    private boolean isFreezeDeadlock(int box, int target) {
+        movedFrom = box;
+        movedTo = target;
+        boolean deadlock = freezeDetector.isDeadlock(this, target);
+        movedFrom = -1;
+        movedTo = -1;
+        return deadlock;
+    }
+
+    @Override
+    public boolean isWall(int square) {
+        return board.isWall(square);
+    }
+
+    @Override
+    public boolean isBox(int square) {
+        return square == movedTo || (square != movedFrom && hasBox(square));
+    }
+
+    @Override
+    public boolean isGoal(int square) {
+        return board.isGoal(square);
+    }
+
+    @Override
+    public boolean isDead(int square) {
+        return board.isDead(square);
+    }
+
+    /**
+     * Tells whether, in the last fill, the worker can pull the given box one step in the given direction,
+     * walking backwards from the square the box moves to.
+     */
+    boolean canPull(int box, int direction) {
+        int offset = board.offset(direction);
+        int target = box + offset;
+        int behind = target + offset;
+        return isReached(target) && !board.isWall(behind) && !hasBox(behind);
+    }
+}
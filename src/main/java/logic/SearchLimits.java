@@ -0,0 +1,29 @@
+package logic;
+
+import java.time.Duration;
+
+/**
+ * The budget of a solver run.
+ *
+ * @param timeLimit the time after which the search gives up
+ * @param maxStates the number of states the search may keep, which bounds its memory use
+ */
+public record SearchLimits(Duration timeLimit, long maxStates) {
+
+    public static final SearchLimits DEFAULT = new SearchLimits(Duration.ofMinutes(1), 10_000_000);
+
+    /**
+     * Returns the {@link System#nanoTime()} at which a search starting now must stop.
+     */
+    long deadline() {
+        return System.nanoTime() + timeLimit.toNanos();
+    }
+
+    /**
+     * Tells whether the deadline has passed, or whether the thread running the search has been interrupted,
+     * which is how a caller cancels a search.
+     */
+    static boolean isPast(long deadline) {
+        return System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted();
+    }
+}
@@ -0,0 +1,122 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Headless checker of solutions written in LURD notation.
+ * <p>
+ * Each line of a solutions file names a level file of the levels directory followed by its solution,
+ * e.g. {@code level1.txt ddRluuL}. Blank lines and lines starting with {@code #} are ignored.
+ * The solutions are replayed in parallel on all cores, without loading any AWT class:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass=logic.SolutionVerifier -Dexec.args="levels solutions.txt"
+ * </pre>
+ */
+@NullMarked
+public final class SolutionVerifier {
+
+    /**
+     * A solution to check, as read from a line of a solutions file.
+     *
+     * @param level the name of the level file in the levels directory
+     * @param moves the moves in LURD notation
+     */
+    public record Solution(String level, String moves) {}
+
+    /**
+     * The outcome of replaying a solution.
+     *
+     * @param passed true if all the moves could be applied and the level is solved afterwards
+     * @param detail what was applied, or why the solution failed
+     * @param nanos  the time taken to load the level and replay the solution
+     */
+    public record Verdict(Solution solution, boolean passed, String detail, long nanos) {}
+
+    private final Path levelsDirectory;
+
+    public SolutionVerifier(Path levelsDirectory) {
+        this.levelsDirectory = levelsDirectory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SolutionVerifier <levels directory> <solutions file>");
+            System.exit(2);
+        }
+        SolutionVerifier verifier = new SolutionVerifier(Paths.get(args[0]));
+        List<Solution> solutions = readSolutions(Paths.get(args[1]));
+
+        long start = System.nanoTime();
+        List<Verdict> verdicts = verifier.verifyAll(solutions);
+        long elapsed = System.nanoTime() - start;
+
+        verdicts.forEach(verdict -> System.out.printf("%s %-24s %10.3f ms  %s%n",
+            verdict.passed() ? "PASS" : "FAIL",
+            verdict.solution().level(),
+            verdict.nanos() / 1e6,
+            verdict.detail()));
+
+        long failed = verdicts.stream().filter(verdict -> !verdict.passed()).count();
+        System.out.printf("%d passed, %d failed in %.1f ms on %d cores%n",
+            verdicts.size() - failed, failed, elapsed / 1e6, Runtime.getRuntime().availableProcessors());
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads a solutions file, one solution per line.
+     */
+    public static List<Solution> readSolutions(Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+            .map(String::strip)
+            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+            .map(line -> {
+                String[] parts = line.split("\\s+", 2);
+                return new Solution(parts[0], parts.length > 1 ? parts[1] : "");
+            })
+            .toList();
+    }
+
+    /**
+     * Checks all the given solutions in parallel.
+     *
+     * @return the verdicts, in the order of the solutions
+     */
+    public List<Verdict> verifyAll(List<Solution> solutions) {
+        return solutions.parallelStream()
+            .map(this::verify)
+            .toList();
+    }
+
+    public Verdict verify(Solution solution) {
+        long start = System.nanoTime();
+        boolean passed = false;
+        String detail;
+        try {
+            String pathToLevel = levelsDirectory.resolve(solution.level()).toString();
+            Controller controller = new Controller(LevelCache.shared().get(pathToLevel));
+            AppliedMoves applied = controller.applyMoves(solution.moves());
+
+            long total = solution.moves().chars().filter(move -> !Character.isWhitespace(move)).count();
+            if (applied.moves() < total) {
+                detail = "move %d of %d is blocked".formatted(applied.moves() + 1, total);
+            } else if (!applied.solved()) {
+                detail = "level is not solved after %d moves".formatted(applied.moves());
+            } else {
+                passed = true;
+                detail = "%d moves, %d pushes".formatted(applied.moves(), applied.pushes());
+            }
+        } catch (RuntimeException e) {
+            detail = "error: %s".formatted(e.getMessage());
+        }
+        return new Verdict(solution, passed, detail, System.nanoTime() - start);
+    }
+}
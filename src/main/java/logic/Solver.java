@@ -0,0 +1,19 @@
+package logic;
+
+/**
+ * Finds a sequence of moves that solves a level.
+ */
+public interface Solver {
+    /**
+     * Searches for a solution from the current state of the warehouse, which is left unchanged.
+     *
+     * @param warehouse The warehouse to solve
+     * @param limits    The time and memory budget of the search
+     * @return the solution, or the reason why none was found
+     */
+    SolverResult solve(Warehouse warehouse, SearchLimits limits);
+
+    default SolverResult solve(Warehouse warehouse) {
+        return solve(warehouse, SearchLimits.DEFAULT);
+    }
+}
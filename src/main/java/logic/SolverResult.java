@@ -0,0 +1,37 @@
+package logic;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The outcome of a solver run.
+ *
+ * @param status         whether a solution was found, and why not otherwise
+ * @param moves          the worker moves of the solution, empty if there is none
+ * @param pushes         the pushes of the solution, empty if there is none
+ * @param exploredStates the number of states the search generated
+ */
+public record SolverResult(Status status, List<Direction> moves, List<Push> pushes, long exploredStates) {
+
+    public enum Status {
+        SOLVED,
+        UNSOLVABLE,
+        TIME_LIMIT_REACHED,
+        STATE_LIMIT_REACHED
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    static SolverResult solved(PushBoard board, int[] pushes, long exploredStates) {
+        return new SolverResult(Status.SOLVED,
+            board.toMoves(pushes),
+            Arrays.stream(pushes).mapToObj(board::toPush).toList(),
+            exploredStates);
+    }
+
+    static SolverResult failed(Status status, long exploredStates) {
+        return new SolverResult(status, List.of(), List.of(), exploredStates);
+    }
+}
@@ -0,0 +1,61 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A node of the push graph: the squares of the boxes, in ascending order, and the canonical square
+ * of the worker's region. States that only differ by where the worker stands in its region are equal.
+ */
+@NullMarked
+final class State {
+    private final int[] boxes;
+    private final int worker;
+    private final int hash;
+
+    State(int[] boxes, int worker) {
+        this.boxes = boxes;
+        this.worker = worker;
+        this.hash = 31 * Arrays.hashCode(boxes) + worker;
+    }
+
+    int[] boxes() {
+        return boxes;
+    }
+
+    int worker() {
+        return worker;
+    }
+
+    /**
+     * Returns a copy of the sorted box squares, with the box at {@code index} moved to {@code to}.
+     */
+    static int[] move(int[] boxes, int index, int to) {
+        int[] moved = boxes.clone();
+        int i = index;
+        while (i > 0 && moved[i - 1] > to) {
+            moved[i] = moved[i - 1];
+            i--;
+        }
+        while (i < moved.length - 1 && moved[i + 1] < to) {
+            moved[i] = moved[i + 1];
+            i++;
+        }
+        moved[i] = to;
+        return moved;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        return other instanceof State state
+            && worker == state.worker
+            && Arrays.equals(boxes, state.boxes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -13,6 +13,14 @@ public enum TileType {
     WORKER_IN_STORAGE_AREA('B'),
     OUTSIDE('_');
 
+    private static final TileType[] BY_INDEX = new TileType[values().length];
+
+    static {
+        for (TileType type : values()) {
+            BY_INDEX[type.index()] = type;
+        }
+    }
+
     private final char code;
 
     TileType(char code) {
@@ -35,6 +43,33 @@ public enum TileType {
         return String.valueOf(code);
     }
 
+    /**
+     * Returns the number standing for this tile type in the packed tile arrays of the warehouse.
+     *
+     * @see #ofIndex(int)
+     */
+    byte index() {
+        return switch (this) {
+            case FLOOR                  -> 0;
+            case WALL                   -> 1;
+            case UNSTORED_BOX           -> 2;
+            case STORED_BOX             -> 3;
+            case STORAGE_AREA           -> 4;
+            case WORKER_ON_FLOOR        -> 5;
+            case WORKER_IN_STORAGE_AREA -> 6;
+            case OUTSIDE                -> 7;
+        };
+    }
+
+    /**
+     * Returns the tile type a number of the packed tile arrays stands for.
+     *
+     * @see #index()
+     */
+    static TileType ofIndex(int index) {
+        return BY_INDEX[index];
+    }
+
     /**
      * Returns an Optional containing the TileType corresponding to the given character code.
      * The character code should match one of the tile type codes defined in this enum.
@@ -1,71 +1,391 @@
 package logic;
 
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.IntStream;
-
-import static com.google.common.base.Preconditions.checkState;
+import java.util.BitSet;
 
+/**
+ * The board of a level.
+ * <p>
+ * Tiles are packed into a flat array, each entry holding the {@link TileType#index() index} of its type.
+ * The board is surrounded by a one-square border of {@link TileType#OUTSIDE} tiles, so with a row
+ * stride of {@code columns + 2} the neighbour in any direction is a fixed offset away and moves need
+ * neither bounds checks nor a switch on the direction.
+ * {@link Cell} objects are only created on demand as views.
+ */
 @NullMarked
 public class Warehouse {
+
     private final int lines;
     private final int columns;
+    private final int width;
+    private final int[] offsets;
+
+    private final byte[] tiles;
+    private final Zobrist zobrist;
+    private final BitSet deadSquares;
+    // Created on the first deadlock check, so that warehouses and snapshots that are never checked do without it
+    private @Nullable FreezeDetector freezeDetector;
+    private long zobristHash;
+    private int unstoredBoxes;
+    private int workerSquare;
+    // Bumped on every tile change, to tell whether the last flood fill is still valid
+    private long modifications;
 
-    private final List<Cell> cells = new ArrayList<>();
+    // Flood fill of the worker's region, stamped rather than cleared between fills.
+    // Its buffers are created by the first fill, so that snapshots that are never filled do without them.
+    private int @Nullable [] reached;
+    private int @Nullable [] fillStack;
+    private int fillStamp;
+    private long filledAt = -1;
+    private int canonicalSquare;
 
     public Warehouse(String path_to_level, Worker worker) {
+        this(LevelCache.shared().get(path_to_level), worker);
+    }
+
+    /**
+     * Creates a warehouse in the initial state of the given level and places the worker on it.
+     */
+    public Warehouse(LevelTemplate template, Worker worker) {
+        this.lines = template.getLines();
+        this.columns = template.getColumns();
+        this.width = template.getWidth();
+        this.offsets = template.getOffsets();
+
+        this.tiles = template.copyTiles();
+        this.zobrist = template.getZobrist();
+        this.deadSquares = template.getDeadSquares();
+        this.zobristHash = template.getZobristHash();
+        this.unstoredBoxes = template.getUnstoredBoxes();
+        this.workerSquare = indexOf(template.getWorkerLine(), template.getWorkerColumn());
+        worker.moveTo(template.getWorkerLine(), template.getWorkerColumn());
+    }
+
+    private Warehouse(Warehouse other) {
+        this.lines = other.lines;
+        this.columns = other.columns;
+        this.width = other.width;
+        this.offsets = other.offsets;
+
+        this.tiles = other.tiles.clone();
+        this.zobrist = other.zobrist;
+        this.deadSquares = other.deadSquares;
+        this.zobristHash = other.zobristHash;
+        this.unstoredBoxes = other.unstoredBoxes;
+        this.workerSquare = other.workerSquare;
+    }
+
+    /**
+     * Returns an independent copy of the current position, which another thread can work on.
+     */
+    Warehouse snapshot() {
+        return new Warehouse(this);
+    }
+
+    /**
+     * Returns a view of the cell at the given position.
+     * The view reads and writes through to this warehouse, so it can be discarded after use.
+     */
+    public Cell getCell(int l, int c) {
+        return new Cell(l, c, this);
+    }
+
+    TileType getTileType(int l, int c) {
+        return tileAt(indexOf(l, c));
+    }
+
+    void setTileType(int l, int c, TileType type) {
+        setTile(indexOf(l, c), type);
+    }
+
+    TileType getAdjacentTileType(int l, int c, Direction direction) {
+        return tileAt(indexOf(l, c) + offsets[direction.index()]);
+    }
 
-        Path file = Paths.get(path_to_level);
-        List<String> linesFromFile;
-        try {
-            linesFromFile = Files.readAllLines(file, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    void setAdjacentTileType(int l, int c, Direction direction, TileType type) {
+        setTile(indexOf(l, c) + offsets[direction.index()], type);
+    }
+
+    /**
+     * Moves the worker onto the given cell from the adjacent cell opposite to {@code direction},
+     * pushing a box on that cell one step further if needed.
+     *
+     * @return true if the worker moved, false if the move is blocked or the worker is not on the adjacent cell
+     */
+    boolean canAcceptWorker(int line, int column, Direction direction) {
+        int from = indexOf(line, column) - offsets[direction.index()];
+        return isWorker(tileAt(from)) && moveWorker(from, direction);
+    }
+
+    /**
+     * Moves the worker standing at the given position one step, pushing a box if there is one in the way.
+     *
+     * @return true if the worker moved, false if the move is blocked
+     */
+    boolean moveWorker(int line, int column, Direction direction) {
+        return moveWorker(indexOf(line, column), direction);
+    }
+
+    private boolean moveWorker(int from, Direction direction) {
+        int offset = offsets[direction.index()];
+        int target = from + offset;
+        TileType targetType = tileAt(target);
+        if (isBox(targetType)) {
+            int beyond = target + offset;
+            TileType beyondType = tileAt(beyond);
+            if (!isFree(beyondType)) {
+                return false;
+            }
+            setTile(beyond, beyondType == TileType.STORAGE_AREA ? TileType.STORED_BOX : TileType.UNSTORED_BOX);
+            targetType = targetType == TileType.STORED_BOX ? TileType.STORAGE_AREA : TileType.FLOOR;
+        } else if (!isFree(targetType)) {
+            return false;
         }
+        setTile(target, targetType == TileType.STORAGE_AREA ? TileType.WORKER_IN_STORAGE_AREA : TileType.WORKER_ON_FLOOR);
+        setTile(from, tileAt(from) == TileType.WORKER_IN_STORAGE_AREA ? TileType.STORAGE_AREA : TileType.FLOOR);
+        return true;
+    }
+
+    /**
+     * Reverts a move of the worker now standing at the given position, made in the given direction.
+     * If the move was a push, the box is pulled back too.
+     */
+    void undoMove(int line, int column, Direction direction, boolean push) {
+        int offset = offsets[direction.index()];
+        int at = indexOf(line, column);
+        int from = at - offset;
+        setTile(from, isStorage(tileAt(from)) ? TileType.WORKER_IN_STORAGE_AREA : TileType.WORKER_ON_FLOOR);
+        if (push) {
+            int box = at + offset;
+            setTile(box, isStorage(tileAt(box)) ? TileType.STORAGE_AREA : TileType.FLOOR);
+            setTile(at, isStorage(tileAt(at)) ? TileType.STORED_BOX : TileType.UNSTORED_BOX);
+        } else {
+            setTile(at, isStorage(tileAt(at)) ? TileType.STORAGE_AREA : TileType.FLOOR);
+        }
+    }
 
-        this.lines = linesFromFile.size();
-        checkState(this.lines >= 7);
+    boolean isBoxAdjacent(int line, int column, Direction direction) {
+        return isBox(tileAt(indexOf(line, column) + offsets[direction.index()]));
+    }
 
-        this.columns = linesFromFile.getFirst().length();
-        checkState(this.columns >= 5);
+    private static boolean isStorage(TileType type) {
+        return type == TileType.STORAGE_AREA || type == TileType.STORED_BOX || type == TileType.WORKER_IN_STORAGE_AREA;
+    }
 
-        parseLevel(worker, linesFromFile);
+    private static boolean isFree(TileType type) {
+        return type == TileType.FLOOR || type == TileType.STORAGE_AREA;
     }
 
-    private void parseLevel(Worker worker, List<String> linesFromFile) {
-        IntStream.range(0, this.lines)
-            .forEach(i -> IntStream.range(0, this.columns)
-                .forEach(j -> {
-                    char cellChar = linesFromFile.get(i).charAt(j);
+    private static boolean isBox(TileType type) {
+        return type == TileType.UNSTORED_BOX || type == TileType.STORED_BOX;
+    }
 
-                    TileType.fromCode(cellChar).ifPresentOrElse(
-                        type -> {
-                            cells.add(new Cell(i, j, type, this));
-                            if (type == TileType.WORKER_ON_FLOOR || type == TileType.WORKER_IN_STORAGE_AREA) {
-                                worker.moveTo(i, j);
-                            }
-                        },
-                        () -> { throw new RuntimeException("Invalid tile type: " + cellChar); }
-                    );
-                })
-            );
+    private static boolean isWorker(TileType type) {
+        return type == TileType.WORKER_ON_FLOOR || type == TileType.WORKER_IN_STORAGE_AREA;
     }
 
+    private int indexOf(int l, int c) {
+        return (l + 1) * this.width + c + 1;
+    }
 
-    public Cell getCell(int l, int c) {
-        return cells.get(l * this.columns + c);
+    TileType tileAt(int index) {
+        return TileType.ofIndex(tiles[index]);
     }
 
+    /**
+     * Single write path for tiles, keeping the Zobrist hash and the unstored box count in step with the board.
+     */
+    private void setTile(int index, TileType type) {
+        TileType previous = tileAt(index);
+        zobristHash ^= zobrist.keyOf(previous, index) ^ zobrist.keyOf(type, index);
+        if (previous == TileType.UNSTORED_BOX) {
+            unstoredBoxes--;
+        }
+        if (type == TileType.UNSTORED_BOX) {
+            unstoredBoxes++;
+        }
+        if (isWorker(type)) {
+            workerSquare = index;
+        }
+        tiles[index] = type.index();
+        modifications++;
+    }
 
+    /**
+     * Checks whether the level is solved, in constant time thanks to the count of unstored boxes.
+     *
+     * @return true if no box is left outside a storage area
+     */
     public boolean checkVictory() {
-        return cells.stream().noneMatch(cell -> cell.getTileType() == TileType.UNSTORED_BOX);
+        return unstoredBoxes == 0;
+    }
+
+    /**
+     * Returns a 64-bit Zobrist hash of the box positions and the worker position.
+     * It is updated on every tile change, so reading it is constant time.
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    /**
+     * Tells whether a box on the given square can never reach a storage area, e.g. a corner or a stretch
+     * along a wall without storage area. Dead squares are found once when the level is parsed, so this is
+     * a constant time check; walls are never dead squares.
+     */
+    public boolean isDeadSquare(int line, int column) {
+        return deadSquares.get(indexOf(line, column));
+    }
+
+    boolean isDeadSquare(int index) {
+        return deadSquares.get(index);
+    }
+
+    /**
+     * Tells whether the box at the given position makes the level unsolvable, because it stands on a dead
+     * square or it is frozen together with boxes that are not all on storage areas.
+     */
+    public boolean isDeadlocked(int line, int column) {
+        int box = indexOf(line, column);
+        return isBox(tileAt(box)) && (deadSquares.get(box) || freezeDetector().isDeadlock(freezeBoard, box));
+    }
+
+    private FreezeDetector freezeDetector() {
+        FreezeDetector detector = freezeDetector;
+        if (detector == null) {
+            detector = new FreezeDetector(tiles.length, offsets);
+            freezeDetector = detector;
+        }
+        return detector;
+    }
+
+    private final FreezeDetector.Board freezeBoard = new FreezeDetector.Board() {
+        @Override
+        public boolean isWall(int square) {
+            TileType type = tileAt(square);
+            return type == TileType.WALL || type == TileType.OUTSIDE;
+        }
+
+        @Override
+        public boolean isBox(int square) {
+            return Warehouse.isBox(tileAt(square));
+        }
+
+        @Override
+        public boolean isGoal(int square) {
+            return isStorage(tileAt(square));
+        }
+
+        @Override
+        public boolean isDead(int square) {
+            return deadSquares.get(square);
+        }
+    };
+
+    /**
+     * Tells whether the worker can walk to the given position without pushing any box.
+     */
+    public boolean isReachable(int line, int column) {
+        return fillWorkerRegion()[indexOf(line, column)] == fillStamp;
+    }
+
+    /**
+     * Returns the line of the canonical worker position: the top-left square of the region the worker can
+     * walk to, which is the same wherever the worker stands in the region.
+     */
+    public int getCanonicalWorkerLine() {
+        fillWorkerRegion();
+        return canonicalSquare / width - 1;
+    }
+
+    /**
+     * Returns the column of the canonical worker position.
+     *
+     * @see #getCanonicalWorkerLine()
+     */
+    public int getCanonicalWorkerColumn() {
+        fillWorkerRegion();
+        return canonicalSquare % width - 1;
+    }
+
+    /**
+     * Returns the padded index of the canonical worker position, as used by the solvers' states.
+     */
+    int getCanonicalWorkerSquare() {
+        fillWorkerRegion();
+        return canonicalSquare;
+    }
+
+    /**
+     * Returns the Zobrist hash of the boxes with the worker on its canonical position, so that positions
+     * that only differ by where the worker stands in its region hash the same. Solutions and hints found
+     * for one of them can be shared with the others.
+     */
+    public long getNormalizedHash() {
+        fillWorkerRegion();
+        TileType canonical = tileAt(canonicalSquare);
+        if (canonicalSquare == workerSquare) {
+            return zobristHash;
+        }
+        TileType worker = tileAt(workerSquare);
+        TileType workerLeft = worker == TileType.WORKER_IN_STORAGE_AREA ? TileType.STORAGE_AREA : TileType.FLOOR;
+        TileType canonicalTaken = canonical == TileType.STORAGE_AREA ? TileType.WORKER_IN_STORAGE_AREA : TileType.WORKER_ON_FLOOR;
+        return zobristHash
+            ^ zobrist.keyOf(worker, workerSquare) ^ zobrist.keyOf(workerLeft, workerSquare)
+            ^ zobrist.keyOf(canonical, canonicalSquare) ^ zobrist.keyOf(canonicalTaken, canonicalSquare);
+    }
+
+    /**
+     * Flood fills the worker's region over the tile array, unless the tiles did not change since the last fill.
+     *
+     * @return the fill stamps of the squares, where those reached by the last fill hold {@link #fillStamp}
+     */
+    private int[] fillWorkerRegion() {
+        int[] reached = this.reached;
+        int[] stack = this.fillStack;
+        if (reached == null || stack == null) {
+            reached = new int[tiles.length];
+            stack = new int[tiles.length];
+            this.reached = reached;
+            this.fillStack = stack;
+        }
+        if (filledAt == modifications) {
+            return reached;
+        }
+        int stamp = ++fillStamp;
+
+        int canonical = workerSquare;
+        int size = 0;
+        stack[size++] = workerSquare;
+        reached[workerSquare] = stamp;
+        while (size > 0) {
+            int square = stack[--size];
+            canonical = Math.min(canonical, square);
+            for (int offset : offsets) {
+                int next = square + offset;
+                if (reached[next] != stamp && isFree(tileAt(next))) {
+                    reached[next] = stamp;
+                    stack[size++] = next;
+                }
+            }
+        }
+        canonicalSquare = canonical;
+        filledAt = modifications;
+        return reached;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getSquareCount() {
+        return tiles.length;
+    }
+
+    int[] getOffsets() {
+        return offsets;
     }
 
     public int getLines() {
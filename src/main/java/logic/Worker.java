@@ -22,20 +22,9 @@ public class Worker {
         return line;
     }
 
-    public void moveUp() {
-        this.line -= 1;
-    }
-
-    public void moveDown() {
-        this.line += 1;
-    }
-
-    public void moveLeft() {
-        this.column -= 1;
-    }
-
-    public void moveRight() {
-        this.column += 1;
+    public void move(Direction direction) {
+        this.line += direction.getLineDelta();
+        this.column += direction.getColumnDelta();
     }
 
 }
@@ -0,0 +1,34 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of a warehouse state: one key per square for a box and one per
+ * square for the worker. The keys come from a fixed seed, so equal states always hash the same.
+ */
+@NullMarked
+final class Zobrist {
+    private static final long SEED = 0x50C0BA11L;
+
+    private final long[] boxKeys;
+    private final long[] workerKeys;
+
+    Zobrist(int squares) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.boxKeys = random.longs(squares).toArray();
+        this.workerKeys = random.longs(squares).toArray();
+    }
+
+    /**
+     * Returns the key contributed by a tile of the given type on the given square.
+     */
+    long keyOf(TileType type, int square) {
+        return switch (type) {
+            case UNSTORED_BOX, STORED_BOX                -> boxKeys[square];
+            case WORKER_ON_FLOOR, WORKER_IN_STORAGE_AREA -> workerKeys[square];
+            default -> 0L;
+        };
+    }
+}
@@ -138,6 +138,7 @@ class EditorTest {
 
         // When
         saveButton.doClick();
+        awaitSolvabilityCheck();
 
         // Then - Verify the file was created and contains valid content
         then(TEST_LEVEL_PATH).exists();
@@ -154,6 +155,41 @@ class EditorTest {
         then(lines.get(target.y).charAt(target.x)) .isEqualTo(TileType.STORAGE_AREA.getCode());
     }
 
+    @Test
+    void save_button_rejects_unsolvable_level() throws Exception {
+        // Given - a level whose only box is stuck in a corner
+        JButton playerButton  = findComponentByNameAsType(editor, Editor.Component.PLAYER_BUTTON.name(), JButton.class);
+        JButton boxButton     = findComponentByNameAsType(editor, Editor.Component.BOX_BUTTON.name(), JButton.class);
+        JButton targetButton  = findComponentByNameAsType(editor, Editor.Component.TARGET_BUTTON.name(), JButton.class);
+        JButton saveButton    = findComponentByNameAsType(editor, Editor.Component.SAVE_BUTTON.name(), JButton.class);
+        JLabel errorLabel     = findComponentByNameAsType(editor, Editor.Component.ERROR_LABEL.name(), JLabel.class);
+
+        playerButton.doClick();
+        editor.mousePressed(mouseEventAt(Editor.X_OFFSET + 3 * Editor.TILE_SIZE, Y_OFFSET + 3 * Editor.TILE_SIZE));
+        boxButton.doClick();
+        editor.mousePressed(mouseEventAt(Editor.X_OFFSET + Editor.TILE_SIZE, Y_OFFSET + Editor.TILE_SIZE));
+        targetButton.doClick();
+        editor.mousePressed(mouseEventAt(Editor.X_OFFSET + 5 * Editor.TILE_SIZE, Y_OFFSET + 5 * Editor.TILE_SIZE));
+
+        // When
+        saveButton.doClick();
+        awaitSolvabilityCheck();
+
+        // Then
+        then(TEST_LEVEL_PATH).doesNotExist();
+        then(errorLabel.getText()).isEqualTo("Unsolvable level!");
+        then(saveButton.getText()).isEqualTo("Save");
+        then(editor.isDisplayable()).as("the editor stays open").isTrue();
+    }
+
+    private void awaitSolvabilityCheck() throws InterruptedException {
+        Editor.SolvabilityCheck check = editor.getSolvabilityCheck();
+        then(check).as("a solvability check has started").isNotNull();
+        if (check != null) {
+            check.await(Editor.CHECK_TIME_LIMIT.plusSeconds(10));
+        }
+    }
+
     private MouseEvent mouseEventAt(int x, int y) {
         return new MouseEvent(
             editor,                      // Component source
@@ -0,0 +1,93 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static logic.BreadthFirstSolverTest.controllerFor;
+import static logic.BreadthFirstSolverTest.lurd;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class AStarSolverTest {
+
+    private final Solver solver = new AStarSolver();
+
+    @Test
+    void finds_as_few_pushes_as_breadth_first_search() {
+        // Given
+        Controller controller = controllerFor("levels/level1.txt");
+        SolverResult breadthFirst = new BreadthFirstSolver().solve(controller.getWarehouse());
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).hasSameSizeAs(breadthFirst.pushes());
+        then(result.exploredStates())
+            .as("the bound steers the search away from most states")
+            .isLessThan(breadthFirst.exploredStates());
+        then(controller.applyMoves(lurd(result)).solved()).as("solution solves the level").isTrue();
+    }
+
+    @Test
+    void solves_a_level_out_of_reach_of_breadth_first_search() {
+        // Given
+        Controller controller = controllerFor("levels/level2.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse(), new SearchLimits(Duration.ofMinutes(1), 2_000_000));
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(controller.applyMoves(lurd(result)).solved()).as("solution solves the level").isTrue();
+    }
+
+    @Test
+    void reports_a_level_that_cannot_be_solved() {
+        // Given - the only box is stuck in a corner
+        Controller controller = controllerFor("src/test/resources/levels/test_level_unsolvable.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.UNSOLVABLE);
+        then(result.moves()).isEmpty();
+    }
+
+    @Test
+    void gives_up_when_its_thread_is_interrupted() {
+        // Given
+        Controller controller = controllerFor("levels/level2.txt");
+        Thread.currentThread().interrupt();
+
+        // When
+        SolverResult result;
+        try {
+            result = solver.solve(controller.getWarehouse());
+        } finally {
+            Thread.interrupted();
+        }
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.TIME_LIMIT_REACHED);
+        then(result.exploredStates()).as("the search stopped at once").isEqualTo(1);
+    }
+
+    @Test
+    void bounds_the_pushes_left_by_the_cheapest_assignment_of_boxes() {
+        // Given
+        Controller controller = controllerFor("src/test/resources/levels/test_level.txt");
+        PushBoard board = PushBoard.of(controller.getWarehouse());
+        AssignmentBound bound = new AssignmentBound(PushDistances.of(board));
+
+        // When
+        int pushesLeft = bound.of(board.start().boxes());
+
+        // Then
+        then(pushesLeft).isEqualTo(1);
+    }
+}
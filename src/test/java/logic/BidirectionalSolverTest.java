@@ -0,0 +1,55 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import static logic.BreadthFirstSolverTest.controllerFor;
+import static logic.BreadthFirstSolverTest.lurd;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class BidirectionalSolverTest {
+
+    private final Solver solver = new BidirectionalSolver();
+
+    @Test
+    void finds_as_few_pushes_as_breadth_first_search_from_fewer_states() {
+        // Given
+        Controller controller = controllerFor("levels/level1.txt");
+        SolverResult breadthFirst = new BreadthFirstSolver().solve(controller.getWarehouse());
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).hasSameSizeAs(breadthFirst.pushes());
+        then(result.exploredStates()).isLessThan(breadthFirst.exploredStates());
+        then(controller.applyMoves(lurd(result)).solved()).as("solution solves the level").isTrue();
+    }
+
+    @Test
+    void solves_a_level_with_more_storage_areas_than_boxes() {
+        // Given
+        Controller controller = controllerFor("src/test/resources/levels/test_level_extra_storage.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).containsExactly(new Push(3, 3, Direction.RIGHT));
+    }
+
+    @Test
+    void reports_a_level_that_cannot_be_solved() {
+        // Given - the only box is stuck in a corner
+        Controller controller = controllerFor("src/test/resources/levels/test_level_unsolvable.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.UNSOLVABLE);
+    }
+}
@@ -0,0 +1,71 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class BitBoardTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "src/test/resources/levels/test_level.txt",
+        "src/test/resources/levels/test_level_no_moves.txt",
+        "levels/level1.txt",
+        "levels/level3.txt",
+        "levels/level8.txt"
+    })
+    void replays_random_moves_like_the_controller(String level) {
+        // Given
+        Controller controller = new Controller(Paths.get(level).toAbsolutePath().toString());
+        BitBoard board = BitBoard.of(controller.getWarehouse());
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2_000; i++) {
+            // When
+            Direction direction = Direction.ofIndex(random.nextInt(4));
+            controller.action(direction);
+            board.move(direction);
+
+            // Then
+            then(board.getWorkerLine()).as("worker line is the same after move %d", i)
+                .isEqualTo(controller.getWorker().getLine());
+            then(board.getWorkerColumn()).as("worker column is the same after move %d", i)
+                .isEqualTo(controller.getWorker().getColumn());
+            then(board.isSolved()).as("victory is the same after move %d", i)
+                .isEqualTo(controller.levelEnd());
+        }
+        Warehouse warehouse = controller.getWarehouse();
+        for (int l = 0; l < warehouse.getLines(); l++) {
+            for (int c = 0; c < warehouse.getColumns(); c++) {
+                TileType type = warehouse.getCell(l, c).getTileType();
+                then(board.hasBox(l, c)).as("box at line %d column %d is the same", l, c)
+                    .isEqualTo(type == TileType.UNSTORED_BOX || type == TileType.STORED_BOX);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "src/test/resources/levels/test_level_end.txt",
+        "src/test/resources/levels/level1.txt"
+    })
+    void pushing_the_last_box_onto_a_storage_area_solves_the_board(String level) {
+        // Given
+        Controller controller = new Controller(Paths.get(level).toAbsolutePath().toString());
+        BitBoard board = BitBoard.of(controller.getWarehouse());
+        then(board.isSolved()).isFalse();
+
+        // When
+        boolean moved = board.move(Direction.RIGHT);
+
+        // Then
+        then(moved).isTrue();
+        then(board.isSolved()).isTrue();
+    }
+}
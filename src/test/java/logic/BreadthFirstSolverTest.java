@@ -0,0 +1,110 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class BreadthFirstSolverTest {
+
+    private final Solver solver = new BreadthFirstSolver();
+
+    @Test
+    void finds_a_single_push_solution() {
+        // Given
+        Controller controller = controllerFor("src/test/resources/levels/test_level.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).containsExactly(new Push(3, 3, Direction.RIGHT));
+        then(result.moves()).containsExactly(Direction.DOWN, Direction.RIGHT);
+    }
+
+    @Test
+    void finds_a_push_optimal_solution_that_solves_the_level() {
+        // Given
+        Controller controller = controllerFor("levels/level1.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).hasSize(12);
+        then(controller.applyMoves(lurd(result)).solved()).as("solution solves the level").isTrue();
+    }
+
+    @Test
+    void leaves_the_warehouse_unchanged() {
+        // Given
+        Controller controller = controllerFor("levels/level1.txt");
+        long hash = controller.getZobristHash();
+
+        // When
+        solver.solve(controller.getWarehouse());
+
+        // Then
+        then(controller.getZobristHash()).isEqualTo(hash);
+    }
+
+    @Test
+    void reports_a_level_that_cannot_be_solved() {
+        // Given - the only box is stuck in a corner
+        Controller controller = controllerFor("src/test/resources/levels/test_level_unsolvable.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.UNSOLVABLE);
+        then(result.moves()).isEmpty();
+    }
+
+    @Test
+    void gives_up_when_the_state_budget_is_spent() {
+        // Given
+        Controller controller = controllerFor("levels/level2.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse(), new SearchLimits(Duration.ofMinutes(1), 1_000));
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.STATE_LIMIT_REACHED);
+        then(result.exploredStates()).isEqualTo(1_000);
+    }
+
+    @Test
+    void gives_up_when_the_time_budget_is_spent() {
+        // Given
+        Controller controller = controllerFor("levels/level2.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse(), new SearchLimits(Duration.ZERO, 1_000_000));
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.TIME_LIMIT_REACHED);
+    }
+
+    static Controller controllerFor(String level) {
+        return new Controller(LevelCache.shared().get(Paths.get(level).toAbsolutePath().toString()));
+    }
+
+    static String lurd(SolverResult result) {
+        return result.moves().stream()
+            .map(direction -> switch (direction) {
+                case LEFT  -> "l";
+                case UP    -> "u";
+                case RIGHT -> "r";
+                case DOWN  -> "d";
+            })
+            .collect(Collectors.joining());
+    }
+}
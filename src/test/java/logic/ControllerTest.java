@@ -3,8 +3,15 @@ package logic;
 import org.jspecify.annotations.NullMarked;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 
 @NullMarked
 class ControllerTest {
@@ -77,4 +84,263 @@ class ControllerTest {
         then(controller.getWorker().getLine()).isEqualTo(2);
     }
 
+    @Test
+    void zobrist_hash_identifies_the_state_regardless_of_the_path_taken() {
+        // Given
+        long initialHash = controller.getZobristHash();
+
+        // When - walk around the box and come back
+        controller.action(Direction.RIGHT);
+        long hashAfterStep = controller.getZobristHash();
+        controller.action(Direction.LEFT);
+
+        // Then
+        then(hashAfterStep).as("hash changes when the worker moves").isNotEqualTo(initialHash);
+        then(controller.getZobristHash()).as("hash is restored when the worker is back").isEqualTo(initialHash);
+    }
+
+    @Test
+    void zobrist_hash_after_a_push_matches_the_hash_of_a_fresh_level() {
+        // Given
+        long initialHash = controller.getZobristHash();
+
+        // When
+        controller.action(Direction.DOWN);
+        controller.action(Direction.RIGHT);
+        long hashAfterPush = controller.getZobristHash();
+        controller.restart();
+
+        // Then
+        then(hashAfterPush).as("hash changes when a box is pushed").isNotEqualTo(initialHash);
+        then(controller.getZobristHash()).as("hash of a restarted level is the initial hash").isEqualTo(initialHash);
+    }
+
+    @Test
+    void pushing_a_stored_box_off_its_target_reopens_the_level() {
+        // Given - the box is pushed onto the target
+        controller.action(Direction.DOWN);
+        controller.action(Direction.RIGHT);
+        then(controller.levelEnd()).isTrue();
+
+        // When - push it one step further, off the target
+        controller.action(Direction.RIGHT);
+
+        // Then
+        then(controller.levelEnd()).as("level is not complete once the box leaves the target").isFalse();
+    }
+
+    @Test
+    void undoing_a_push_restores_the_worker_the_box_and_the_hash() {
+        // Given
+        controller.action(Direction.DOWN);
+        long hashBeforePush = controller.getZobristHash();
+        controller.action(Direction.RIGHT);
+
+        // When
+        boolean undone = controller.undo();
+
+        // Then
+        then(undone).isTrue();
+        then(controller.getWorker().getLine()).isEqualTo(3);
+        then(controller.getWorker().getColumn()).isEqualTo(2);
+        then(controller.getWarehouse().getCell(3, 3).getTileType())
+            .as("box is pulled back to its square").isEqualTo(TileType.UNSTORED_BOX);
+        then(controller.getWarehouse().getCell(3, 4).getTileType())
+            .as("target is empty again").isEqualTo(TileType.STORAGE_AREA);
+        then(controller.levelEnd()).isFalse();
+        then(controller.getZobristHash()).isEqualTo(hashBeforePush);
+    }
+
+    @Test
+    void redo_makes_the_undone_moves_again() {
+        // Given
+        controller.action(Direction.DOWN);
+        controller.action(Direction.RIGHT);
+        long hashAfterPush = controller.getZobristHash();
+        controller.undo();
+        controller.undo();
+
+        // When
+        controller.redo();
+        controller.redo();
+
+        // Then
+        then(controller.redo()).as("nothing is left to redo").isFalse();
+        then(controller.levelEnd()).isTrue();
+        then(controller.getZobristHash()).isEqualTo(hashAfterPush);
+    }
+
+    @Test
+    void a_new_move_discards_the_moves_to_redo() {
+        // Given
+        controller.action(Direction.RIGHT);
+        controller.undo();
+
+        // When
+        controller.action(Direction.LEFT);
+
+        // Then
+        then(controller.redo()).isFalse();
+        then(controller.undo()).isTrue();
+        then(controller.undo()).as("only the new move is left to undo").isFalse();
+    }
+
+    @Test
+    void restart_does_not_read_the_level_file_again(@TempDir Path directory) throws IOException {
+        // Given - a level whose file is gone once loaded
+        Path level = directory.resolve("level.txt");
+        Files.copy(Paths.get("src/test/resources/levels/test_level.txt"), level);
+        Controller controller = new Controller(level.toString());
+        controller.action(Direction.DOWN);
+        controller.action(Direction.RIGHT);
+        Files.delete(level);
+
+        // When
+        controller.restart();
+
+        // Then
+        then(controller.getWorker().getLine()).isEqualTo(2);
+        then(controller.getWorker().getColumn()).isEqualTo(2);
+        then(controller.levelEnd()).as("box is back on its initial square").isFalse();
+    }
+
+    @Test
+    void next_level_is_the_following_numbered_level() {
+        // Given
+        Controller first = new Controller(Paths.get("src/test/resources/levels/level1.txt").toAbsolutePath().toString());
+
+        // When
+        Controller next = first.nextLevel();
+
+        // Then
+        then(next.getLevel()).isEqualTo(2);
+        then(next.isOnCustomLevel()).isFalse();
+        then(next.getWarehouse().getLines()).isEqualTo(LevelTemplate.read("levels/level2.txt").getLines());
+    }
+
+    @Test
+    void next_level_fails_when_there_is_no_following_level() {
+        // Given
+        Controller last = new Controller(Paths.get("src/test/resources/levels/level10.txt").toAbsolutePath().toString());
+
+        // When / Then
+        thenThrownBy(last::nextLevel).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void applies_a_sequence_of_moves_in_lurd_notation() {
+        // When
+        AppliedMoves applied = controller.applyMoves("d R");
+
+        // Then
+        then(applied).isEqualTo(new AppliedMoves(2, 1, true));
+        then(controller.undo()).as("applied moves can be undone").isTrue();
+    }
+
+    @Test
+    void applying_moves_stops_at_the_first_blocked_move() {
+        // When - the third push would move the box into the wall
+        AppliedMoves applied = controller.applyMoves("dRRRl".getBytes(StandardCharsets.US_ASCII));
+
+        // Then
+        then(applied).isEqualTo(new AppliedMoves(3, 2, false));
+        then(controller.getWorker().getColumn()).isEqualTo(4);
+    }
+
+    @Test
+    void rejects_characters_that_are_not_moves() {
+        thenThrownBy(() -> controller.applyMoves("dx"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid move: x");
+    }
+
+    @Test
+    void an_invalid_sequence_leaves_the_game_untouched() {
+        // Given
+        long before = controller.getZobristHash();
+
+        // When
+        thenThrownBy(() -> controller.applyMoves("ddrx".getBytes(StandardCharsets.US_ASCII)))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        // Then
+        then(controller.getZobristHash()).isEqualTo(before);
+        then(controller.undo()).as("no move was recorded").isFalse();
+    }
+
+
+    @Test
+    void pushing_a_box_onto_a_dead_square_deadlocks_the_level_until_undone() {
+        // Given
+        controller.applyMoves("ddrU");
+        then(controller.isDeadlocked()).isFalse();
+
+        // When - the box is pushed against the top wall, which has no storage area
+        controller.action(Direction.UP);
+
+        // Then
+        then(controller.isDeadlocked()).isTrue();
+        controller.undo();
+        then(controller.isDeadlocked()).as("undoing the push gets out of the deadlock").isFalse();
+        controller.redo();
+        then(controller.isDeadlocked()).isTrue();
+    }
+
+    @Test
+    void freezing_two_boxes_against_each_other_deadlocks_the_level() {
+        // Given - a box on the top wall, which has a storage area, and another one two squares below its neighbour
+        Controller controller = new Controller(
+            Paths.get("src/test/resources/levels/test_level_freeze.txt").toAbsolutePath().toString());
+        controller.action(Direction.UP);
+        then(controller.getWarehouse().isDeadSquare(1, 2)).isFalse();
+        then(controller.isDeadlocked()).isFalse();
+
+        // When - the box is pushed next to the other one, so that neither can move any more
+        controller.action(Direction.UP);
+
+        // Then
+        then(controller.isDeadlocked()).isTrue();
+        controller.restart();
+        then(controller.isDeadlocked()).isFalse();
+    }
+
+    @Test
+    void normalized_hash_ignores_where_the_worker_stands_in_its_region() {
+        // Given
+        long hash = controller.getZobristHash();
+        long normalized = controller.getNormalizedHash();
+
+        // When - the worker walks around without pushing
+        controller.applyMoves("rru");
+
+        // Then
+        then(controller.getZobristHash()).isNotEqualTo(hash);
+        then(controller.getNormalizedHash()).isEqualTo(normalized);
+    }
+
+    @Test
+    void normalized_hash_is_the_hash_of_the_worker_on_the_canonical_square() {
+        // Given - a worker walked to the top-left square of its region
+        controller.applyMoves("lu");
+        long onCanonicalSquare = controller.getZobristHash();
+        controller.restart();
+
+        // When
+        long normalized = controller.getNormalizedHash();
+
+        // Then
+        then(normalized).isEqualTo(onCanonicalSquare);
+    }
+
+    @Test
+    void normalized_hash_changes_with_a_push() {
+        // Given
+        long normalized = controller.getNormalizedHash();
+
+        // When
+        controller.applyMoves("dR");
+
+        // Then
+        then(controller.getNormalizedHash()).isNotEqualTo(normalized);
+    }
 }
@@ -0,0 +1,94 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static logic.BreadthFirstSolverTest.controllerFor;
+import static logic.BreadthFirstSolverTest.lurd;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class ExternalBreadthFirstSolverTest {
+
+    @Test
+    void finds_as_few_pushes_as_breadth_first_search_in_memory(@TempDir Path scratch) throws IOException {
+        // Given - runs small enough for every layer to be spread over several files
+        Controller controller = controllerFor("levels/level1.txt");
+        SolverResult inMemory = new BreadthFirstSolver().solve(controller.getWarehouse());
+
+        // When
+        SolverResult result = new ExternalBreadthFirstSolver(scratch, 100).solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).hasSameSizeAs(inMemory.pushes());
+        then(controller.applyMoves(lurd(result)).solved()).as("solution solves the level").isTrue();
+        try (Stream<Path> files = Files.list(scratch)) {
+            then(files).as("the scratch files are deleted").isEmpty();
+        }
+    }
+
+    @Test
+    void merges_many_runs_in_several_passes(@TempDir Path scratch) {
+        // Given - runs of a few states, so that wide layers spill into more runs than are merged at once
+        Controller controller = controllerFor("levels/level1.txt");
+        SolverResult inMemory = new BreadthFirstSolver().solve(controller.getWarehouse());
+
+        // When
+        SolverResult result = new ExternalBreadthFirstSolver(scratch, 20).solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).hasSameSizeAs(inMemory.pushes());
+        then(controller.applyMoves(lurd(result)).solved()).as("solution solves the level").isTrue();
+    }
+
+    @Test
+    void reports_a_level_that_cannot_be_solved(@TempDir Path scratch) {
+        // Given - the only box is stuck in a corner
+        Controller controller = controllerFor("src/test/resources/levels/test_level_unsolvable.txt");
+
+        // When
+        SolverResult result = new ExternalBreadthFirstSolver(scratch, 100).solve(controller.getWarehouse());
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.UNSOLVABLE);
+    }
+
+    @Test
+    void gives_up_when_the_state_budget_is_spent(@TempDir Path scratch) {
+        // Given
+        Controller controller = controllerFor("levels/level2.txt");
+
+        // When
+        SolverResult result = new ExternalBreadthFirstSolver(scratch, 100)
+            .solve(controller.getWarehouse(), new SearchLimits(Duration.ofMinutes(1), 1_000));
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.STATE_LIMIT_REACHED);
+        then(result.exploredStates()).isGreaterThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void gives_up_when_the_time_limit_is_reached(@TempDir Path scratch) throws IOException {
+        // Given - a level whose search takes seconds, so the limit strikes while expanding or merging
+        Controller controller = controllerFor("levels/level2.txt");
+
+        // When
+        SolverResult result = new ExternalBreadthFirstSolver(scratch, 1_000)
+            .solve(controller.getWarehouse(), new SearchLimits(Duration.ofMillis(200), Long.MAX_VALUE));
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.TIME_LIMIT_REACHED);
+        try (Stream<Path> files = Files.list(scratch)) {
+            then(files).as("the scratch files are deleted").isEmpty();
+        }
+    }
+}
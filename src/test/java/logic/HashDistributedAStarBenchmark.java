@@ -0,0 +1,74 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Prints the speedup of {@link HashDistributedAStarSolver} from 1 to N threads on the levels of a directory.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=logic.HashDistributedAStarBenchmark \
+ *     -Dexec.args="levels 32 60"
+ * </pre>
+ * The arguments are the levels directory, the highest thread count (the number of cores by default)
+ * and the time limit per run in seconds (60 by default). Thread counts double from 1 up to the highest.
+ */
+@NullMarked
+public final class HashDistributedAStarBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Path levels = Paths.get(args.length > 0 ? args[0] : "levels");
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Duration timeLimit = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 60);
+        SearchLimits limits = new SearchLimits(timeLimit, Long.MAX_VALUE);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(levels)) {
+            files = listing
+                .filter(file -> file.getFileName().toString().endsWith(".txt"))
+                .sorted(Comparator.comparing(HashDistributedAStarBenchmark::levelNumber))
+                .toList();
+        }
+
+        // Warm up the JIT so that the single thread runs, which every speedup is relative to, are not penalised
+        if (!files.isEmpty()) {
+            Warehouse first = new Controller(LevelCache.shared().get(files.getFirst().toString())).getWarehouse();
+            for (int run = 0; run < 5; run++) {
+                new HashDistributedAStarSolver(maxThreads).solve(first, limits);
+            }
+        }
+
+        System.out.printf("%-14s %7s %10s %12s %8s %8s%n", "level", "threads", "time ms", "states", "pushes", "speedup");
+        for (Path file : files) {
+            Warehouse warehouse = new Controller(LevelCache.shared().get(file.toString())).getWarehouse();
+            long baseline = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                long start = System.nanoTime();
+                SolverResult result = new HashDistributedAStarSolver(threads).solve(warehouse, limits);
+                long elapsed = System.nanoTime() - start;
+                if (!result.isSolved()) {
+                    System.out.printf("%-14s %7d %10.0f %12d %8s%n",
+                        file.getFileName(), threads, elapsed / 1e6, result.exploredStates(), result.status());
+                    break;
+                }
+                if (threads == 1) {
+                    baseline = elapsed;
+                }
+                System.out.printf("%-14s %7d %10.0f %12d %8d %8.2f%n",
+                    file.getFileName(), threads, elapsed / 1e6, result.exploredStates(), result.pushes().size(),
+                    (double) baseline / elapsed);
+            }
+        }
+    }
+
+    private static int levelNumber(Path file) {
+        return Controller.parseLevel(file.getFileName().toString()).orElse(Integer.MAX_VALUE);
+    }
+}
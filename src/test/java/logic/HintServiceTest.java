@@ -0,0 +1,164 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static logic.BreadthFirstSolverTest.controllerFor;
+import static logic.BreadthFirstSolverTest.lurd;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class HintServiceTest {
+
+    private final HintService hintService = new HintService();
+
+    @Test
+    void hint_is_the_first_push_of_an_optimal_solution() throws Exception {
+        // Given
+        Controller controller = controllerFor("levels/level1.txt");
+        SolverResult solution = new AStarSolver().solve(controller.getWarehouse());
+
+        // When
+        Optional<Push> hint = hintService.nextPush(controller).get(10, TimeUnit.SECONDS);
+
+        // Then
+        then(hint).contains(solution.pushes().getFirst());
+        then(controller.getWarehouse().checkVictory()).as("the game is left as it was").isFalse();
+    }
+
+    @Test
+    void hints_along_the_solution_are_answered_from_the_cache() throws Exception {
+        // Given
+        Controller controller = controllerFor("levels/level1.txt");
+        SolverResult solution = new AStarSolver().solve(controller.getWarehouse());
+        hintService.nextPush(controller).get(10, TimeUnit.SECONDS);
+        String moves = lurd(solution);
+
+        // When - the player walks up to the first box and pushes it
+        int move = 0;
+        while (controller.applyMoves(moves.substring(move, move + 1)).pushes() == 0) {
+            move++;
+        }
+        CompletableFuture<Optional<Push>> hint = hintService.nextPush(controller);
+
+        // Then
+        then(hint.isDone()).as("the hint is known without searching").isTrue();
+        then(hint.get()).contains(solution.pushes().get(1));
+        then(hintService.cacheSize()).isEqualTo(solution.pushes().size());
+    }
+
+    @Test
+    void hints_are_not_shared_between_levels_with_the_same_boxes() throws Exception {
+        // Given - the same box and worker, but storage areas to the right and below the box
+        Controller toTheRight = new Controller(LevelTemplate.parse(List.of(
+            "MMMMMMM",
+            "M#####M",
+            "M#GC#TM",
+            "M#####M",
+            "M#####M",
+            "M#####M",
+            "MMMMMMM")));
+        Controller below = new Controller(LevelTemplate.parse(List.of(
+            "MMMMMMM",
+            "M#####M",
+            "M#GC##M",
+            "M#####M",
+            "M##T##M",
+            "M#####M",
+            "MMMMMMM")));
+        then(below.getNormalizedHash()).isEqualTo(toTheRight.getNormalizedHash());
+        hintService.nextPush(toTheRight).get(10, TimeUnit.SECONDS);
+
+        // When
+        Optional<Push> hint = hintService.nextPush(below).get(10, TimeUnit.SECONDS);
+
+        // Then
+        then(hint).contains(new Push(2, 3, Direction.DOWN));
+    }
+
+    @Test
+    void no_hint_is_given_for_a_level_that_cannot_be_solved() throws Exception {
+        // Given - the only box is stuck in a corner
+        Controller controller = controllerFor("src/test/resources/levels/test_level_unsolvable.txt");
+
+        // When
+        Optional<Push> hint = hintService.nextPush(controller).get(10, TimeUnit.SECONDS);
+
+        // Then
+        then(hint).isEmpty();
+    }
+
+    @Test
+    void a_hint_asked_for_another_position_cancels_the_search_still_waiting() throws Exception {
+        // Given - a search that holds the thread, and one waiting behind it
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger searches = new AtomicInteger();
+        HintService blocked = new HintService((_, _) -> {
+            searches.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+            return SolverResult.failed(SolverResult.Status.UNSOLVABLE, 0);
+        }, Duration.ofSeconds(10));
+        CompletableFuture<Optional<Push>> running = blocked.nextPush(controllerFor("levels/level1.txt"));
+        started.await(10, TimeUnit.SECONDS);
+        CompletableFuture<Optional<Push>> waiting = blocked.nextPush(controllerFor("levels/level2.txt"));
+
+        // When
+        CompletableFuture<Optional<Push>> latest = blocked.nextPush(controllerFor("levels/level3.txt"));
+        release.countDown();
+
+        // Then
+        then(waiting.isCancelled()).as("the superseded search is cancelled").isTrue();
+        then(latest.get(10, TimeUnit.SECONDS)).isEmpty();
+        then(running.isCancelled()).as("the hint of the running search is no longer awaited").isTrue();
+        then(searches.get()).as("the superseded search never ran").isEqualTo(2);
+    }
+
+    @Test
+    void the_budget_counts_the_time_spent_waiting_for_the_thread() throws Exception {
+        // Given - a search that holds the thread for longer than the budget of the next one
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger searches = new AtomicInteger();
+        HintService slow = new HintService((_, _) -> {
+            searches.incrementAndGet();
+            started.countDown();
+            awaitQuietly(new CountDownLatch(1), 300);
+            return SolverResult.failed(SolverResult.Status.TIME_LIMIT_REACHED, 0);
+        }, Duration.ofMillis(100));
+        Controller controller = controllerFor("levels/level1.txt");
+        CompletableFuture<Optional<Push>> first = slow.nextPush(controller);
+        started.await(10, TimeUnit.SECONDS);
+
+        // When - asked of another service, which shares the thread but does not cancel the first search
+        CompletableFuture<Optional<Push>> second = new HintService((_, _) -> {
+            searches.incrementAndGet();
+            return SolverResult.failed(SolverResult.Status.UNSOLVABLE, 0);
+        }, Duration.ofMillis(100)).nextPush(controller);
+
+        // Then
+        then(second.get(10, TimeUnit.SECONDS)).isEmpty();
+        then(first.get(10, TimeUnit.SECONDS)).isEmpty();
+        then(searches.get()).as("the second search is out of time before it starts").isEqualTo(1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        awaitQuietly(latch, 10_000);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class LevelCacheTest {
+
+    private Path directory;
+    private Path level;
+    private LevelCache cache;
+
+    @BeforeEach
+    void setUp(@TempDir Path directory) throws IOException {
+        this.directory = directory;
+        level = copyOfTestLevel("level.txt");
+        cache = new LevelCache(2);
+    }
+
+    @Test
+    void returns_the_cached_level_while_its_file_is_unchanged() {
+        // When
+        LevelTemplate first = cache.get(level.toString());
+        LevelTemplate second = cache.get(level.toString());
+
+        // Then
+        then(second).isSameAs(first);
+    }
+
+    @Test
+    void parses_the_level_again_when_its_file_is_modified() throws IOException {
+        // Given
+        LevelTemplate first = cache.get(level.toString());
+
+        // When - the box is moved onto the target
+        Files.writeString(level, Files.readString(level).replace("##CT#", "###V#"));
+        Files.setLastModifiedTime(level, FileTime.from(Instant.now().plusSeconds(10)));
+        LevelTemplate second = cache.get(level.toString());
+
+        // Then
+        then(second).isNotSameAs(first);
+        then(new Warehouse(second, new Worker()).checkVictory())
+            .as("modified level is loaded").isTrue();
+    }
+
+    @Test
+    void evicts_the_least_recently_used_level_beyond_its_capacity() throws IOException {
+        // Given
+        Path other = copyOfTestLevel("other.txt");
+        Path third = copyOfTestLevel("third.txt");
+        LevelTemplate first = cache.get(level.toString());
+        LevelTemplate otherTemplate = cache.get(other.toString());
+        cache.get(level.toString());
+
+        // When
+        cache.get(third.toString());
+
+        // Then
+        then(cache.size()).isEqualTo(2);
+        then(cache.get(level.toString())).as("recently used level is kept").isSameAs(first);
+        then(cache.get(other.toString())).as("least recently used level is evicted").isNotSameAs(otherTemplate);
+    }
+
+    private Path copyOfTestLevel(String name) throws IOException {
+        return Files.copy(Paths.get("src/test/resources/levels/test_level.txt"), directory.resolve(name));
+    }
+}
@@ -0,0 +1,120 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+@NullMarked
+class LevelPackTest {
+
+    private static final String PACK = String.join("\r\n",
+        "; A small pack",
+        "",
+        "#####",
+        "#@$.#",
+        "#####",
+        "Title: Corridor",
+        "Author: nobody",
+        "",
+        "; 2",
+        "  ####",
+        "###  #",
+        "#@$ .#",
+        "#    #",
+        "######",
+        "");
+
+    @Test
+    void indexes_every_level_of_the_pack(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("pack.sok"), PACK);
+
+        // When
+        LevelPack pack = LevelPack.open(file);
+
+        // Then
+        then(pack.size()).isEqualTo(2);
+        then(pack.title(0)).contains("Corridor");
+        then(pack.title(1)).isEmpty();
+    }
+
+    @Test
+    void levels_are_read_on_demand_and_can_be_played(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("pack.sok"), PACK);
+        LevelPack pack = LevelPack.open(file);
+
+        // When
+        Controller first = new Controller(pack.level(0));
+        Controller second = new Controller(pack.level(1));
+
+        // Then
+        then(first.applyMoves("r").solved()).as("one push solves the first level").isTrue();
+        then(second.applyMoves("rr").solved()).as("two pushes solve the second level").isTrue();
+    }
+
+    @Test
+    void converts_XSB_notation_to_the_tiles_of_the_level_files(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("pack.xsb"), PACK);
+
+        // When
+        Warehouse warehouse = new Warehouse(LevelPack.open(file).level(1), new Worker());
+
+        // Then
+        then(warehouse.getLines()).as("the level is padded to the smallest size of a level").isEqualTo(7);
+        then(warehouse.getColumns()).isEqualTo(6);
+        then(warehouse.getCell(0, 0).getTileType()).as("floor outside the walls").isEqualTo(TileType.OUTSIDE);
+        then(warehouse.getCell(1, 3).getTileType()).isEqualTo(TileType.FLOOR);
+        then(warehouse.getCell(2, 1).getTileType()).isEqualTo(TileType.WORKER_ON_FLOOR);
+        then(warehouse.getCell(2, 2).getTileType()).isEqualTo(TileType.UNSTORED_BOX);
+        then(warehouse.getCell(2, 4).getTileType()).isEqualTo(TileType.STORAGE_AREA);
+        then(warehouse.getCell(6, 5).getTileType()).isEqualTo(TileType.OUTSIDE);
+    }
+
+    @Test
+    void reads_a_pack_saved_with_a_byte_order_mark(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("pack.sok"), "\uFEFF" + PACK);
+
+        // When
+        LevelPack pack = LevelPack.open(file);
+
+        // Then
+        then(pack.size()).isEqualTo(2);
+        then(new Controller(pack.level(0)).applyMoves("r").solved()).as("one push solves the first level").isTrue();
+    }
+
+    @Test
+    void rejects_a_level_with_several_workers(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("pack.sok"), """
+            ######
+            #@$.@#
+            ######
+            """);
+        LevelPack pack = LevelPack.open(file);
+
+        // When / Then
+        thenThrownBy(() -> pack.level(0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("A level needs one worker, found 2");
+    }
+
+    @Test
+    void rejects_a_level_index_out_of_the_pack(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("pack.sok"), PACK);
+        LevelPack pack = LevelPack.open(file);
+
+        // When / Then
+        thenThrownBy(() -> pack.level(2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static logic.BreadthFirstSolverTest.controllerFor;
+import static logic.BreadthFirstSolverTest.lurd;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class OffHeapBreadthFirstSolverTest {
+
+    private final Solver solver = new OffHeapBreadthFirstSolver(16L << 20);
+
+    @Test
+    void explores_the_same_states_as_breadth_first_search_on_the_heap() {
+        // Given
+        Controller controller = controllerFor("levels/level1.txt");
+        SolverResult onHeap = new BreadthFirstSolver().solve(controller.getWarehouse());
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).isEqualTo(onHeap.pushes());
+        then(result.exploredStates()).isEqualTo(onHeap.exploredStates());
+        then(controller.applyMoves(lurd(result)).solved()).as("solution solves the level").isTrue();
+    }
+
+    @Test
+    void a_solution_found_by_the_last_state_allowed_is_kept() {
+        // Given - a budget that runs out exactly on the solved state
+        Controller controller = controllerFor("levels/level1.txt");
+        long explored = solver.solve(controller.getWarehouse()).exploredStates();
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse(), new SearchLimits(Duration.ofMinutes(1), explored));
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.SOLVED);
+    }
+
+    @Test
+    void gives_up_when_the_table_is_full() {
+        // Given
+        Controller controller = controllerFor("levels/level2.txt");
+
+        // When
+        SolverResult result = new OffHeapBreadthFirstSolver(64 << 10).solve(controller.getWarehouse());
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.STATE_LIMIT_REACHED);
+    }
+
+    @Test
+    void reports_a_level_that_cannot_be_solved() {
+        // Given - the only box is stuck in a corner
+        Controller controller = controllerFor("src/test/resources/levels/test_level_unsolvable.txt");
+
+        // When
+        SolverResult result = solver.solve(controller.getWarehouse());
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.UNSOLVABLE);
+    }
+}
@@ -0,0 +1,57 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+@NullMarked
+class OffHeapStateTableTest {
+
+    @Test
+    void stores_each_state_once_and_reads_it_back() {
+        try (OffHeapStateTable table = new OffHeapStateTable(5, 1 << 16)) {
+            // When
+            long start = table.insert(new int[]{10, 11, 12, 13, 65_535}, 9, -1, 0);
+            long child = table.insert(new int[]{10, 11, 12, 14, 65_535}, 12, start, PushBoard.packPush(13, 3));
+            long again = table.insert(new int[]{10, 11, 12, 13, 65_535}, 9, child, 1);
+
+            // Then
+            then(again).as("a state already stored is not added again").isEqualTo(OffHeapStateTable.KNOWN);
+            then(table.size()).isEqualTo(2);
+            then(table.slotAt(0)).isEqualTo(start);
+            then(table.slotAt(1)).isEqualTo(child);
+
+            int[] boxes = new int[5];
+            then(table.read(child, boxes)).isEqualTo(12);
+            then(boxes).containsExactly(10, 11, 12, 14, 65_535);
+            then(table.parentOf(child)).isEqualTo(start);
+            then(table.pushOf(child)).isEqualTo(PushBoard.packPush(13, 3));
+            then(table.parentOf(start)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void reports_when_it_is_full() {
+        // Given - a table with 4 slots, 3 of which can be used
+        try (OffHeapStateTable table = new OffHeapStateTable(1, 4 * 24)) {
+            for (int worker = 1; worker <= 3; worker++) {
+                then(table.insert(new int[]{20}, worker, -1, 0)).isNotNegative();
+            }
+
+            // When
+            long slot = table.insert(new int[]{20}, 4, -1, 0);
+
+            // Then
+            then(slot).isEqualTo(OffHeapStateTable.FULL);
+            then(table.insert(new int[]{20}, 2, -1, 0)).isEqualTo(OffHeapStateTable.KNOWN);
+        }
+    }
+
+    @Test
+    void rejects_a_capacity_too_small_for_a_table() {
+        thenThrownBy(() -> new OffHeapStateTable(3, 16))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
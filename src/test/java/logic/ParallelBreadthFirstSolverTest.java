@@ -0,0 +1,64 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+
+import static logic.BreadthFirstSolverTest.controllerFor;
+import static logic.BreadthFirstSolverTest.lurd;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+@NullMarked
+class ParallelBreadthFirstSolverTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8})
+    void finds_as_few_pushes_as_breadth_first_search_whatever_the_thread_count(int threads) {
+        // Given
+        Controller controller = controllerFor("levels/level1.txt");
+        SolverResult breadthFirst = new BreadthFirstSolver().solve(controller.getWarehouse());
+
+        // When
+        SolverResult result = new ParallelBreadthFirstSolver(threads).solve(controller.getWarehouse());
+
+        // Then
+        then(result.isSolved()).isTrue();
+        then(result.pushes()).hasSameSizeAs(breadthFirst.pushes());
+        then(controller.applyMoves(lurd(result)).solved()).as("solution solves the level").isTrue();
+    }
+
+    @Test
+    void reports_a_level_that_cannot_be_solved() {
+        // Given - the only box is stuck in a corner
+        Controller controller = controllerFor("src/test/resources/levels/test_level_unsolvable.txt");
+
+        // When
+        SolverResult result = new ParallelBreadthFirstSolver(2).solve(controller.getWarehouse());
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.UNSOLVABLE);
+    }
+
+    @Test
+    void gives_up_when_the_state_budget_is_spent() {
+        // Given
+        Controller controller = controllerFor("levels/level2.txt");
+
+        // When
+        SolverResult result = new ParallelBreadthFirstSolver(2)
+            .solve(controller.getWarehouse(), new SearchLimits(Duration.ofMinutes(1), 1_000));
+
+        // Then
+        then(result.status()).isEqualTo(SolverResult.Status.STATE_LIMIT_REACHED);
+    }
+
+    @Test
+    void rejects_a_parallelism_below_one() {
+        thenThrownBy(() -> new ParallelBreadthFirstSolver(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
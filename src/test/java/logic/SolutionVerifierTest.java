@@ -0,0 +1,66 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class SolutionVerifierTest {
+
+    private final SolutionVerifier verifier = new SolutionVerifier(Paths.get("src/test/resources/levels"));
+
+    @Test
+    void a_solution_that_solves_the_level_passes() {
+        // When
+        var verdict = verifier.verify(new SolutionVerifier.Solution("test_level.txt", "dR"));
+
+        // Then
+        then(verdict.passed()).isTrue();
+        then(verdict.detail()).isEqualTo("2 moves, 1 pushes");
+    }
+
+    @Test
+    void solutions_that_are_blocked_unfinished_or_unreadable_fail() {
+        // When
+        List<SolutionVerifier.Verdict> verdicts = verifier.verifyAll(List.of(
+            new SolutionVerifier.Solution("test_level_no_moves.txt", "r"),
+            new SolutionVerifier.Solution("test_level.txt", "d"),
+            new SolutionVerifier.Solution("test_level.txt", "dx"),
+            new SolutionVerifier.Solution("missing.txt", "r")
+        ));
+
+        // Then
+        then(verdicts).noneMatch(SolutionVerifier.Verdict::passed);
+        then(verdicts).extracting(SolutionVerifier.Verdict::detail)
+            .startsWith("move 1 of 1 is blocked", "level is not solved after 1 moves", "error: Invalid move: x");
+    }
+
+    @Test
+    void reads_one_solution_per_line_skipping_blank_lines_and_comments(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = directory.resolve("solutions.txt");
+        Files.writeString(file, """
+            # level 1
+            level1.txt  uuRR dL
+
+            level2.txt
+            """);
+
+        // When
+        List<SolutionVerifier.Solution> solutions = SolutionVerifier.readSolutions(file);
+
+        // Then
+        then(solutions).containsExactly(
+            new SolutionVerifier.Solution("level1.txt", "uuRR dL"),
+            new SolutionVerifier.Solution("level2.txt", "")
+        );
+    }
+}
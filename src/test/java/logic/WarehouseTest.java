@@ -0,0 +1,101 @@
+package logic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@NullMarked
+class WarehouseTest {
+
+    private Worker worker;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        String testLevelPath = Paths.get("src/test/resources/levels/test_level.txt").toAbsolutePath().toString();
+        worker = new Worker();
+        warehouse = new Warehouse(testLevelPath, worker);
+    }
+
+    @Test
+    void parses_tiles_from_the_level_file() {
+        then(warehouse.getLines()).isEqualTo(7);
+        then(warehouse.getColumns()).isEqualTo(7);
+        then(warehouse.getCell(0, 0).getTileType()).isEqualTo(TileType.WALL);
+        then(warehouse.getCell(2, 2).getTileType()).isEqualTo(TileType.WORKER_ON_FLOOR);
+        then(warehouse.getCell(3, 3).getTileType()).isEqualTo(TileType.UNSTORED_BOX);
+        then(warehouse.getCell(3, 4).getTileType()).isEqualTo(TileType.STORAGE_AREA);
+        then(worker.getLine()).isEqualTo(2);
+        then(worker.getColumn()).isEqualTo(2);
+    }
+
+    @Test
+    void cell_views_write_through_to_the_warehouse() {
+        // When
+        warehouse.getCell(1, 1).setTileType(TileType.WALL);
+
+        // Then
+        then(warehouse.getCell(1, 1).getTileType())
+            .as("a fresh view sees the tile written through another view")
+            .isEqualTo(TileType.WALL);
+        then(warehouse.getCell(1, 2).getAdjacentCellType(Direction.LEFT)).isEqualTo(TileType.WALL);
+    }
+
+    @Test
+    void victory_requires_every_box_to_be_stored() {
+        then(warehouse.checkVictory()).isFalse();
+
+        // When
+        warehouse.getCell(3, 3).setTileType(TileType.FLOOR);
+        warehouse.getCell(3, 4).setTileType(TileType.STORED_BOX);
+
+        // Then
+        then(warehouse.checkVictory()).isTrue();
+    }
+
+    @Test
+    void squares_beyond_the_edge_of_the_board_are_outside() {
+        then(warehouse.getCell(0, 0).getAdjacentCellType(Direction.UP)).isEqualTo(TileType.OUTSIDE);
+        then(warehouse.getCell(0, 0).getAdjacentCellType(Direction.LEFT)).isEqualTo(TileType.OUTSIDE);
+        then(warehouse.getCell(6, 6).getAdjacentCellType(Direction.DOWN)).isEqualTo(TileType.OUTSIDE);
+        then(warehouse.getCell(6, 6).getAdjacentCellType(Direction.RIGHT)).isEqualTo(TileType.OUTSIDE);
+    }
+
+    @Test
+    void squares_along_walls_without_storage_are_dead() {
+        then(warehouse.isDeadSquare(1, 1)).as("a corner is dead").isTrue();
+        then(warehouse.isDeadSquare(1, 3)).as("a wall run without storage area is dead").isTrue();
+        then(warehouse.isDeadSquare(5, 3)).as("a wall run without storage area is dead").isTrue();
+        then(warehouse.isDeadSquare(3, 3)).isFalse();
+        then(warehouse.isDeadSquare(2, 2)).isFalse();
+        then(warehouse.isDeadSquare(3, 4)).as("a storage area is never dead").isFalse();
+        then(warehouse.isDeadSquare(0, 0)).as("a wall is never dead").isFalse();
+    }
+
+    @Test
+    void the_canonical_worker_position_is_the_top_left_square_of_its_region() {
+        then(warehouse.isReachable(1, 1)).isTrue();
+        then(warehouse.isReachable(3, 3)).as("the worker cannot walk onto a box").isFalse();
+        then(warehouse.isReachable(0, 0)).as("the worker cannot walk onto a wall").isFalse();
+        then(warehouse.getCanonicalWorkerLine()).isEqualTo(1);
+        then(warehouse.getCanonicalWorkerColumn()).isEqualTo(1);
+    }
+
+    @Test
+    void a_worker_walled_in_by_boxes_is_alone_in_its_region() {
+        // Given
+        Warehouse walledIn = new Warehouse(
+            Paths.get("src/test/resources/levels/test_level_no_moves.txt").toAbsolutePath().toString(), new Worker());
+
+        // Then
+        then(walledIn.isReachable(2, 2)).isTrue();
+        then(walledIn.isReachable(1, 1)).isFalse();
+        then(walledIn.getCanonicalWorkerLine()).isEqualTo(2);
+        then(walledIn.getCanonicalWorkerColumn()).isEqualTo(2);
+        then(walledIn.getNormalizedHash()).isEqualTo(walledIn.getZobristHash());
+    }
+}